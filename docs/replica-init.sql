@@ -0,0 +1,8 @@
+-- Starts replicating from the mysql service of docker-compose.yml, run once when the replica is created.
+-- The replica retries until the primary is up.
+CHANGE MASTER TO
+    MASTER_HOST = 'mysql',
+    MASTER_USER = 'root',
+    MASTER_PASSWORD = 'root',
+    MASTER_AUTO_POSITION = 1;
+START SLAVE;
@@ -0,0 +1,58 @@
+package com.vertilux.shadeCalculator.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vertilux.shadeCalculator.repositories.*;
+import com.vertilux.shadeCalculator.services.CatalogueSeedService;
+import com.vertilux.shadeCalculator.utils.CatalogueCache;
+import com.vertilux.shadeCalculator.utils.CatalogueChangePublisher;
+import com.vertilux.shadeCalculator.utils.CatalogueNormaliser;
+import com.vertilux.shadeCalculator.utils.CatalogueVersion;
+import com.vertilux.shadeCalculator.utils.MeasurementConverter;
+import com.vertilux.shadeCalculator.utils.ShadeCalculator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * BenchmarkCatalogue
+ * <p>
+ *     Wires the calculator by hand on top of in-memory repositories,
+ *     and seeds them with the same catalogue seed file the application loads in development mode.
+ * </p>
+ *
+ * @see InMemoryRepository
+ */
+public class BenchmarkCatalogue {
+    public final UnitRepo unitRepo = InMemoryRepository.create(UnitRepo.class);
+    public final ConversionRepo conversionRepo = InMemoryRepository.create(ConversionRepo.class);
+    public final BottomRailRepo bottomRailRepo = InMemoryRepository.create(BottomRailRepo.class);
+    public final RollerFabricRepo rollerFabricRepo = InMemoryRepository.create(RollerFabricRepo.class);
+    public final RollerShadeRepo rollerShadeRepo = InMemoryRepository.create(RollerShadeRepo.class);
+    public final RollerTubeRepo rollerTubeRepo = InMemoryRepository.create(RollerTubeRepo.class);
+    public final CatalogueSeedMarkerRepo catalogueSeedMarkerRepo = InMemoryRepository.create(CatalogueSeedMarkerRepo.class);
+
+    public final CatalogueVersion catalogueVersion = new CatalogueVersion();
+    // nothing listens to the catalogue changes of the benchmarks
+    public final CatalogueChangePublisher catalogueChangePublisher = new CatalogueChangePublisher(catalogueVersion, event -> {});
+    public final CatalogueCache catalogueCache = new CatalogueCache(
+            rollerTubeRepo, rollerFabricRepo, rollerShadeRepo, bottomRailRepo, 10_000);
+    public final MeasurementConverter measurementConverter = new MeasurementConverter(unitRepo, conversionRepo, new SimpleMeterRegistry());
+    public final CatalogueNormaliser catalogueNormaliser = new CatalogueNormaliser(measurementConverter);
+    public final ShadeCalculator shadeCalculator = new ShadeCalculator(measurementConverter, catalogueNormaliser, catalogueCache, rollerTubeRepo);
+
+    public BenchmarkCatalogue() {
+        CatalogueSeedService seedService = new CatalogueSeedService(
+                unitRepo, conversionRepo, bottomRailRepo, rollerFabricRepo, rollerShadeRepo, rollerTubeRepo,
+                catalogueSeedMarkerRepo, measurementConverter, catalogueNormaliser, catalogueChangePublisher,
+                TransactionOperations.withoutTransaction(), new ObjectMapper());
+        try (InputStream in = BenchmarkCatalogue.class.getResourceAsStream("/catalogue/seed.json")) {
+            seedService.seed(seedService.read(in));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        catalogueCache.warm();
+    }
+}
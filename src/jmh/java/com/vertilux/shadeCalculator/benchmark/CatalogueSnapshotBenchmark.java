@@ -0,0 +1,179 @@
+package com.vertilux.shadeCalculator.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vertilux.shadeCalculator.models.measurements.MeasurementUnit;
+import com.vertilux.shadeCalculator.models.measurements.UnitConversion;
+import com.vertilux.shadeCalculator.models.rollerShade.BottomRail;
+import com.vertilux.shadeCalculator.models.rollerShade.RollerFabric;
+import com.vertilux.shadeCalculator.models.rollerShade.RollerShadeSystem;
+import com.vertilux.shadeCalculator.models.rollerShade.RollerTube;
+import com.vertilux.shadeCalculator.repositories.*;
+import com.vertilux.shadeCalculator.schemas.CatalogueSeed;
+import com.vertilux.shadeCalculator.schemas.RollerFabricCreation;
+import com.vertilux.shadeCalculator.schemas.RollerTubeCreation;
+import com.vertilux.shadeCalculator.services.EmbeddedCatalogueService;
+import com.vertilux.shadeCalculator.utils.CatalogueCache;
+import com.vertilux.shadeCalculator.utils.CatalogueChangePublisher;
+import com.vertilux.shadeCalculator.utils.CatalogueNormaliser;
+import com.vertilux.shadeCalculator.utils.CatalogueVersion;
+import com.vertilux.shadeCalculator.utils.MeasurementConverter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CatalogueSnapshotBenchmark
+ * <p>
+ *     Compares loading the catalogue of the embedded profile from the JSON catalogue and from a binary snapshot,
+ *     up to a first lookup by name, with and without warming the catalogue caches as a node does at startup.
+ *     The file size, and the heap used once each file is loaded, are printed once per fork, before the measurements.
+ * </p>
+ * <p>
+ *     The catalogue is the seed catalogue grown to 100 000 components, half tubes and half fabrics.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@org.openjdk.jmh.annotations.Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CatalogueSnapshotBenchmark {
+    private static final int COPIES = 50_000;
+
+    @Param({"json", "snapshot"})
+    private String format;
+
+    private Path directory;
+    private Path file;
+    private String name;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("catalogue");
+        Path json = directory.resolve("catalogue.json");
+        Path snapshot = directory.resolve("catalogue.bin");
+
+        ObjectMapper mapper = new ObjectMapper();
+        CatalogueSeed seed;
+        try (InputStream in = CatalogueSnapshotBenchmark.class.getResourceAsStream("/catalogue/seed.json")) {
+            seed = mapper.readValue(in, CatalogueSeed.class);
+        }
+        List<RollerTubeCreation> tubes = new ArrayList<>();
+        List<RollerFabricCreation> fabrics = new ArrayList<>();
+        for (int i = 0; i < COPIES; i++) {
+            RollerTubeCreation tube = seed.getTubes().get(i % seed.getTubes().size());
+            tubes.add(new RollerTubeCreation(tube.getName() + " #" + i, tube.getOuterDiameter(), tube.getInnerDiameter()));
+            RollerFabricCreation fabric = seed.getFabrics().get(i % seed.getFabrics().size());
+            fabrics.add(new RollerFabricCreation(fabric.getName() + " #" + i, fabric.getThickness(), fabric.getWeight()));
+        }
+        seed.setTubes(tubes);
+        seed.setFabrics(fabrics);
+        mapper.writeValue(json.toFile(), seed);
+        name = tubes.get(COPIES / 2).getName();
+
+        // the snapshot is written from the catalogue the JSON file loads to, as a node with a database exports it
+        Node node = new Node(json);
+        node.service.load();
+        try (OutputStream out = Files.newOutputStream(snapshot)) {
+            CatalogueSnapshotFile.write(out, seed.getVersion(),
+                    node.units.findAll(), node.conversions.findAll(), node.bottomRails.findAll(),
+                    node.fabrics.findAll(), node.systems.findAll(), node.tubes.findAll());
+        }
+        file = "snapshot".equals(format) ? snapshot : json;
+
+        System.gc();
+        long before = usedHeap();
+        Node loaded = new Node(file);
+        loaded.service.load();
+        System.gc();
+        System.out.printf("%n%s: %d bytes, %d KB of heap once loaded%n",
+                format, Files.size(file), (usedHeap() - before) / 1024);
+        if (loaded.tubes.findByName(name).isEmpty()) {
+            throw new IllegalStateException("Tube " + name + " not found");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path path : files.toList()) {
+                Files.delete(path);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    /**
+     * Loads the file as a node does at startup, including warming the catalogue caches with every component.
+     */
+    @Benchmark
+    public Object load() throws IOException {
+        Node node = new Node(file);
+        node.service.load();
+        return node.tubes.findByName(name);
+    }
+
+    /**
+     * Only publishes the file to the repositories, then looks up one tube.
+     */
+    @Benchmark
+    public Object firstLookup() throws IOException {
+        EmbeddedCatalogue catalogue = new EmbeddedCatalogue();
+        if ("snapshot".equals(format)) {
+            CatalogueSnapshotFile snapshot = CatalogueSnapshotFile.map(file);
+            catalogue.replace(snapshot.getVersion(), snapshot.getTables());
+        } else {
+            // the JSON catalogue is parsed and normalised by the service, so this is the same as load without the caches
+            Node node = new Node(file);
+            node.service.load();
+            return node.tubes.findByName(name);
+        }
+        return catalogue.repository(RollerTubeRepo.class, RollerTube.class).findByName(name);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * The beans of an embedded node, wired by hand.
+     */
+    private static final class Node {
+        private final EmbeddedCatalogue catalogue = new EmbeddedCatalogue();
+        private final UnitRepo units = catalogue.repository(UnitRepo.class, MeasurementUnit.class);
+        private final ConversionRepo conversions = catalogue.repository(ConversionRepo.class, UnitConversion.class);
+        private final BottomRailRepo bottomRails = catalogue.repository(BottomRailRepo.class, BottomRail.class);
+        private final RollerFabricRepo fabrics = catalogue.repository(RollerFabricRepo.class, RollerFabric.class);
+        private final RollerShadeRepo systems = catalogue.repository(RollerShadeRepo.class, RollerShadeSystem.class);
+        private final RollerTubeRepo tubes = catalogue.repository(RollerTubeRepo.class, RollerTube.class);
+        private final EmbeddedCatalogueService service;
+
+        private Node(Path file) {
+            MeasurementConverter measurementConverter = new MeasurementConverter(units, conversions, new SimpleMeterRegistry());
+            service = new EmbeddedCatalogueService(catalogue, measurementConverter,
+                    new CatalogueNormaliser(measurementConverter),
+                    new CatalogueCache(tubes, fabrics, systems, bottomRails, 2 * COPIES),
+                    new CatalogueChangePublisher(new CatalogueVersion(), event -> { }), new ObjectMapper(), file.toString());
+        }
+    }
+}
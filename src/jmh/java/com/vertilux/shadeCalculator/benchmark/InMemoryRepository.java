@@ -0,0 +1,107 @@
+package com.vertilux.shadeCalculator.benchmark;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * InMemoryRepository
+ * <p>
+ *     Stand-in for the Spring Data repositories, so the calculator can be benchmarked without a database.
+ *     It implements any repository interface through a dynamic proxy, backed by an insertion ordered map.
+ *     Supported methods: findAll, findById, save, saveAll, delete, deleteById, count,
+ *     and derived finders such as findByName or findByFromAndTo, which match on the entity getters.
+ * </p>
+ */
+public final class InMemoryRepository implements InvocationHandler {
+    private final Map<String, Object> entities = new LinkedHashMap<>();
+
+    private InMemoryRepository() {}
+
+    /**
+     * @param repository the repository interface to implement
+     * @return an empty in-memory implementation of the repository
+     */
+    public static <R> R create(Class<R> repository) {
+        return repository.cast(Proxy.newProxyInstance(
+                repository.getClassLoader(), new Class<?>[]{repository}, new InMemoryRepository()));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        switch (name) {
+            case "findAll":
+                return new ArrayList<>(entities.values());
+            case "findById":
+                return Optional.ofNullable(entities.get((String) args[0]));
+            case "save":
+                return save(args[0]);
+            case "saveAll":
+                List<Object> saved = new ArrayList<>();
+                for (Object entity : (Iterable<?>) args[0]) {
+                    saved.add(save(entity));
+                }
+                return saved;
+            case "delete":
+                entities.remove(id(args[0]));
+                return null;
+            case "deleteById":
+                entities.remove((String) args[0]);
+                return null;
+            case "count":
+                return (long) entities.size();
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "toString":
+                return "InMemoryRepository" + entities.keySet();
+            default:
+                if (name.startsWith("findBy")) {
+                    return findBy(name.substring("findBy".length()).split("And"), args, method.getReturnType());
+                }
+                throw new UnsupportedOperationException(name);
+        }
+    }
+
+    private Object findBy(String[] properties, Object[] args, Class<?> returnType) throws Exception {
+        List<Object> found = new ArrayList<>();
+        for (Object entity : entities.values()) {
+            boolean matches = true;
+            for (int i = 0; i < properties.length && matches; i++) {
+                Method getter = entity.getClass().getMethod("get" + properties[i]);
+                matches = Objects.equals(getter.invoke(entity), args[i]);
+            }
+            if (matches) {
+                found.add(entity);
+            }
+        }
+        if (Collection.class.isAssignableFrom(returnType)) {
+            return found;
+        }
+        return found.stream().findFirst();
+    }
+
+    private Object save(Object entity) throws Exception {
+        String id = id(entity);
+        if (id == null) {
+            id = UUID.randomUUID().toString();
+            entity.getClass().getMethod("setId", String.class).invoke(entity, id);
+        }
+        entities.put(id, entity);
+        return entity;
+    }
+
+    private static String id(Object entity) throws Exception {
+        return (String) entity.getClass().getMethod("getId").invoke(entity);
+    }
+}
@@ -0,0 +1,157 @@
+package com.vertilux.shadeCalculator.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vertilux.shadeCalculator.models.measurements.Measurement;
+import com.vertilux.shadeCalculator.schemas.GetRollUp;
+import com.vertilux.shadeCalculator.schemas.ShadeTemplate;
+import com.vertilux.shadeCalculator.schemas.SystemLimitRequest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LoadTest
+ * <p>
+ *     Closed-loop load test of the calculator endpoints against a running instance.
+ *     Every client sends the systemLimit, getDeflection and getRollUp requests in turn,
+ *     waiting for each response before sending the next one.
+ *     It is used to compare the default platform thread mode with the virtual-threads profile,
+ *     by running it once against each mode with the same arguments.
+ * </p>
+ * <p>
+ *     Arguments: base url (default http://localhost:8080), concurrent clients (default 200),
+ *     measured seconds (default 30). A warm up of a fifth of the measured time is run first.
+ * </p>
+ */
+public final class LoadTest {
+    private final HttpClient client;
+    private final List<HttpRequest> requests;
+
+    private LoadTest(String baseUrl) throws JsonProcessingException {
+        ObjectMapper mapper = new ObjectMapper();
+        Measurement width = Measurement.builder().value(2400).unit("mm").build();
+        Measurement drop = Measurement.builder().value(2100).unit("mm").build();
+
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.requests = List.of(
+                post(baseUrl + "/calculator/systemLimit/mm", mapper.writeValueAsString(SystemLimitRequest.builder()
+                        .systemName("Cassette 100")
+                        .fabricName("Medium-demo")
+                        .build())),
+                post(baseUrl + "/calculator/getDeflection", mapper.writeValueAsString(ShadeTemplate.builder()
+                        .fabricName("Medium-demo")
+                        .tubeName("45mm - 1 3/4\"")
+                        .width(width)
+                        .drop(drop)
+                        .build())),
+                post(baseUrl + "/calculator/getRollUp", mapper.writeValueAsString(GetRollUp.builder()
+                        .drop(drop)
+                        .tubeOuterDiameter(Measurement.builder().value(45).unit("mm").build())
+                        .fabricThickness(Measurement.builder().value(0.5).unit("mm").build())
+                        .build()))
+        );
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+
+        LoadTest loadTest = new LoadTest(baseUrl);
+        System.out.printf("Warming up %s with %d clients%n", baseUrl, clients);
+        loadTest.run(clients, Math.max(1, seconds / 5));
+        System.out.printf("Running for %d seconds%n", seconds);
+        loadTest.run(clients, seconds).print(seconds);
+    }
+
+    /**
+     * @param clients the number of concurrent clients
+     * @param seconds how long to send requests for
+     * @return the latencies and errors of every request sent
+     */
+    private Result run(int clients, int seconds) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        Result result = new Result();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<List<Long>>> futures = new ArrayList<>(clients);
+            for (int i = 0; i < clients; i++) {
+                int offset = i;
+                futures.add(executor.submit(() -> send(offset, deadline, result.errors)));
+            }
+            for (Future<List<Long>> future : futures) {
+                result.latencies.addAll(future.get());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param offset the index of the first request sent, so clients do not all hit the same endpoint at once
+     * @param deadline the System.nanoTime after which no more requests are sent
+     * @param errors incremented for every failed request
+     * @return the latency of every successful request, in nanoseconds
+     */
+    private List<Long> send(int offset, long deadline, LongAdder errors) throws InterruptedException {
+        List<Long> latencies = new ArrayList<>();
+        for (int i = offset; System.nanoTime() < deadline; i++) {
+            HttpRequest request = requests.get(i % requests.size());
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    latencies.add(System.nanoTime() - start);
+                } else {
+                    errors.increment();
+                }
+            } catch (IOException e) {
+                errors.increment();
+            }
+        }
+        return latencies;
+    }
+
+    private static HttpRequest post(String url, String body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static final class Result {
+        private final List<Long> latencies = new ArrayList<>();
+        private final LongAdder errors = new LongAdder();
+
+        private void print(int seconds) {
+            Collections.sort(latencies);
+            System.out.printf("Requests: %d, errors: %d, throughput: %.1f req/s%n",
+                    latencies.size(), errors.sum(), latencies.size() / (double) seconds);
+            if (!latencies.isEmpty()) {
+                System.out.printf("Latency ms: p50 %.2f, p90 %.2f, p99 %.2f, max %.2f%n",
+                        percentile(0.50), percentile(0.90), percentile(0.99), percentile(1));
+            }
+        }
+
+        private double percentile(double percentile) {
+            int index = (int) Math.ceil(percentile * latencies.size()) - 1;
+            return latencies.get(Math.max(0, index)) / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.vertilux.shadeCalculator.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.vertilux.shadeCalculator.models.Response;
+import com.vertilux.shadeCalculator.models.measurements.Measurement;
+import com.vertilux.shadeCalculator.models.rollerShade.RollerFabric;
+import com.vertilux.shadeCalculator.models.rollerShade.RollerShadeSystem;
+import com.vertilux.shadeCalculator.models.rollerShade.RollerTube;
+import com.vertilux.shadeCalculator.schemas.DeflectionSweepResponse;
+import com.vertilux.shadeCalculator.schemas.SystemLimitResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SerializationBenchmark
+ * <p>
+ *     Compares the cost of writing the largest responses as JSON, CBOR and Smile,
+ *     with the same ObjectMapper settings the content negotiation uses.
+ *     The payload size of each response in each format is printed once per fork, before the measurements.
+ * </p>
+ * <p>
+ *     The responses are a catalogue of 1000 tubes, the system limits of every system and fabric pair
+ *     of a catalogue of 100 tubes, and a 100 x 100 deflection sweep.
+ * </p>
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@org.openjdk.jmh.annotations.Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    private ObjectMapper mapper;
+
+    private Response catalogue;
+    private Response systemLimits;
+    private Response deflectionSweep;
+
+    @Setup
+    public void setup() throws JsonProcessingException {
+        mapper = switch (format) {
+            case "cbor" -> new ObjectMapper(new CBORFactory());
+            case "smile" -> new ObjectMapper(new SmileFactory());
+            default -> new ObjectMapper();
+        };
+
+        BenchmarkCatalogue seeded = new BenchmarkCatalogue();
+        List<RollerTube> seededTubes = seeded.rollerTubeRepo.findAll();
+
+        catalogue = Response.builder().data(tubes(seededTubes, 1000)).build();
+
+        List<RollerTube> limitTubes = tubes(seededTubes, 100);
+        List<SystemLimitResponse> limits = new ArrayList<>();
+        for (RollerShadeSystem system : seeded.rollerShadeRepo.findAll()) {
+            for (RollerFabric fabric : seeded.rollerFabricRepo.findAll()) {
+                limits.add(SystemLimitResponse.getSystemLimitResponse(system, fabric,
+                        seeded.shadeCalculator.getAllSystemLimits("mm", system, fabric, limitTubes, seeded.shadeCalculator.getBottomRail())));
+            }
+        }
+        systemLimits = Response.builder().data(limits).build();
+
+        double[] widths = new double[100];
+        double[] drops = new double[100];
+        for (int i = 0; i < 100; i++) {
+            widths[i] = 500 + i * 25.25;
+            drops[i] = 500 + i * 25.25;
+        }
+        RollerFabric fabric = seeded.rollerFabricRepo.findByName("Medium-demo").orElseThrow();
+        RollerTube tube = seeded.rollerTubeRepo.findByName("45mm - 1 3/4\"").orElseThrow();
+        deflectionSweep = Response.builder().data(DeflectionSweepResponse.builder()
+                .fabricName(fabric.getName())
+                .tubeName(tube.getName())
+                .widths(widths)
+                .drops(drops)
+                .unit("mm")
+                .deflections(seeded.shadeCalculator.getDeflectionGrid(fabric, tube, widths, "mm", drops, "mm"))
+                .maxDeflection(seeded.shadeCalculator.getMaxDeflection())
+                .build()).build();
+
+        System.out.printf("%n%s payload bytes: catalogue %d, system limits %d, deflection sweep %d%n", format,
+                catalogue().length, systemLimits().length, deflectionSweep().length);
+    }
+
+    @Benchmark
+    public byte[] catalogue() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(catalogue);
+    }
+
+    @Benchmark
+    public byte[] systemLimits() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(systemLimits);
+    }
+
+    @Benchmark
+    public byte[] deflectionSweep() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(deflectionSweep);
+    }
+
+    /**
+     * @return count tubes, copied from the seeded tubes in turn with a numbered name
+     */
+    private static List<RollerTube> tubes(List<RollerTube> seeded, int count) {
+        List<RollerTube> tubes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            RollerTube tube = seeded.get(i % seeded.size());
+            tubes.add(RollerTube.builder()
+                    .id(Integer.toString(i))
+                    .name(tube.getName() + " #" + i)
+                    .outerDiameter(copy(tube.getOuterDiameter()))
+                    .innerDiameter(copy(tube.getInnerDiameter()))
+                    .build());
+        }
+        return tubes;
+    }
+
+    private static Measurement copy(Measurement measurement) {
+        return Measurement.builder().value(measurement.getValue()).unit(measurement.getUnit()).build();
+    }
+}
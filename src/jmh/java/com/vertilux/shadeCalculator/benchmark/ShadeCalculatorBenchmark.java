@@ -0,0 +1,118 @@
+package com.vertilux.shadeCalculator.benchmark;
+
+import com.vertilux.shadeCalculator.models.measurements.Measurement;
+import com.vertilux.shadeCalculator.models.rollerShade.RollerFabric;
+import com.vertilux.shadeCalculator.models.rollerShade.RollerShadeSystem;
+import com.vertilux.shadeCalculator.models.rollerShade.RollerTube;
+import com.vertilux.shadeCalculator.schemas.SystemLimit;
+import com.vertilux.shadeCalculator.utils.MeasurementConverter;
+import com.vertilux.shadeCalculator.utils.ShadeCalculator;
+import com.vertilux.shadeCalculator.utils.UnitRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ShadeCalculatorBenchmark
+ * <p>
+ *     Measures the calculator and converter hot paths against the seeded catalogue.
+ *     Every benchmark reports throughput and average latency; run with "-prof gc"
+ *     (the default jmh.args of the benchmark profile) to also get the allocation rate per operation.
+ * </p>
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@org.openjdk.jmh.annotations.Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShadeCalculatorBenchmark {
+    private MeasurementConverter measurementConverter;
+    private ShadeCalculator shadeCalculator;
+
+    private RollerShadeSystem system;
+    private RollerFabric fabric;
+    private RollerTube tube;
+
+    private Measurement width;
+    private Measurement drop;
+
+    private double[] sweepWidths;
+    private double[] sweepDrops;
+
+    private int millimeters;
+    private int inches;
+
+    @Setup
+    public void setup() {
+        BenchmarkCatalogue catalogue = new BenchmarkCatalogue();
+        measurementConverter = catalogue.measurementConverter;
+        shadeCalculator = catalogue.shadeCalculator;
+
+        system = catalogue.rollerShadeRepo.findByName("Cassette 100").orElseThrow();
+        fabric = catalogue.rollerFabricRepo.findByName("Medium-demo").orElseThrow();
+        tube = catalogue.rollerTubeRepo.findByName("45mm - 1 3/4\"").orElseThrow();
+
+        width = Measurement.builder().value(2400).unit("mm").build();
+        drop = Measurement.builder().value(2.1).unit("m").build();
+        millimeters = UnitRegistry.find("mm");
+        inches = UnitRegistry.find("in");
+
+        // a 100 x 100 grid, 500 to 3000 mm wide and 500 to 3000 mm high
+        sweepWidths = new double[100];
+        sweepDrops = new double[100];
+        for (int i = 0; i < 100; i++) {
+            sweepWidths[i] = 500 + i * 25.25;
+            sweepDrops[i] = 500 + i * 25.25;
+        }
+    }
+
+    @Benchmark
+    public Measurement rollUp() {
+        return shadeCalculator.getRollUp(drop, tube.getOuterDiameter(), fabric.getThickness());
+    }
+
+    @Benchmark
+    public Measurement tubeDeflection() {
+        return shadeCalculator.getTubeDeflection(fabric, tube, width, drop);
+    }
+
+    @Benchmark
+    public double[][] deflectionSweep() {
+        return shadeCalculator.getDeflectionGrid(fabric, tube, sweepWidths, "mm", sweepDrops, "mm");
+    }
+
+    @Benchmark
+    public SystemLimit systemLimit() {
+        return shadeCalculator.getSystemLimit("mm", system, fabric, tube);
+    }
+
+    @Benchmark
+    public List<SystemLimit> allSystemLimits() {
+        return shadeCalculator.getAllSystemLimits("mm", system, fabric);
+    }
+
+    @Benchmark
+    public Measurement convert() {
+        return measurementConverter.convert(width, "in");
+    }
+
+    @Benchmark
+    public double convertPrimitive() {
+        return measurementConverter.convert(width.getValue(), width.getUnit(), "in");
+    }
+
+    @Benchmark
+    public double convertById() {
+        return width.getValue() * measurementConverter.factor(millimeters, inches);
+    }
+}
@@ -0,0 +1,50 @@
+package com.vertilux.shadeCalculator.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CalculatorConfig
+ * <p>
+ *     This class declares the beans used to run calculator work outside of the request threads.
+ * </p>
+ */
+@Configuration
+public class CalculatorConfig {
+
+    /**
+     * @return the pool used to evaluate batches of system limits in parallel
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool calculatorPool() {
+        return new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * The jobs only coordinate, the limits themselves are still calculated on the calculator pool,
+     * so a few threads are enough. Jobs submitted while the queue is full are rejected.
+     * @param threads the number of jobs running at once
+     * @param queueCapacity the number of jobs waiting to run
+     * @param registry the registry the pool metrics are published to, as executor metrics named calculation.jobs
+     * @return the pool running the asynchronous calculation jobs
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor calculationJobExecutor(@Value("${calculator.jobs.threads:2}") int threads,
+                                                     @Value("${calculator.jobs.queue-capacity:50}") int queueCapacity,
+                                                     MeterRegistry registry) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("calculation-job-"));
+        new ExecutorServiceMetrics(executor, "calculation.jobs", List.of()).bindTo(registry);
+        return executor;
+    }
+}
@@ -0,0 +1,66 @@
+package com.vertilux.shadeCalculator.config;
+
+import com.vertilux.shadeCalculator.utils.CatalogueVersion;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * CatalogueETagInterceptor
+ * <p>
+ *     Adds an ETag, taken from the CatalogueVersion, to the GET responses it is registered for,
+ *     and answers a matching If-None-Match with 304 Not Modified
+ *     before the handler runs, so an unchanged catalogue is never read from the database.
+ *     Responses vary on the Accept header, since the same version may be sent as JSON, CBOR or Smile.
+ * </p>
+ * <p>
+ *     There is no Last-Modified header, since the version is kept per process:
+ *     another node would keep the date of its own last change and answer If-Modified-Since with 304
+ *     after this node changed the catalogue. The ETag carries the start time of the process,
+ *     so a tag from another node never matches and only costs one extra download.
+ * </p>
+ * <p>
+ *     The version is read before the handler, and the services bump it after writing,
+ *     so a response can only be tagged with an older version than its content, which costs a client one extra download.
+ *     With a read replica, the reads after a write of this node stay on the primary for the maximum lag,
+ *     so a response tagged with the new version is not read from a replica still serving the old content.
+ * </p>
+ *
+ * @see WebConfig
+ */
+@AllArgsConstructor
+@Component
+public class CatalogueETagInterceptor implements HandlerInterceptor {
+    private CatalogueVersion catalogueVersion;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String method = request.getMethod();
+        if (!HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method)) {
+            return true;
+        }
+        // clients may keep the response, but must revalidate it before every use
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        return !new ServletWebRequest(request, response)
+                .checkNotModified(representationETag(request));
+    }
+
+    /**
+     * A strong ETag must differ between the JSON and binary representations of the same version,
+     * so requests that may be answered in CBOR or Smile get a tag derived from their Accept header.
+     */
+    private String representationETag(HttpServletRequest request) {
+        String etag = catalogueVersion.getETag();
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || !(accept.contains("cbor") || accept.contains("smile"))) {
+            return etag;
+        }
+        return etag.substring(0, etag.length() - 1) + "-" + Integer.toHexString(accept.hashCode()) + "\"";
+    }
+}
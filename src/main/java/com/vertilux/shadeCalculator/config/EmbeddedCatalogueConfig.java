@@ -0,0 +1,60 @@
+package com.vertilux.shadeCalculator.config;
+
+import com.vertilux.shadeCalculator.models.measurements.MeasurementUnit;
+import com.vertilux.shadeCalculator.models.measurements.UnitConversion;
+import com.vertilux.shadeCalculator.models.rollerShade.BottomRail;
+import com.vertilux.shadeCalculator.models.rollerShade.RollerFabric;
+import com.vertilux.shadeCalculator.models.rollerShade.RollerShadeSystem;
+import com.vertilux.shadeCalculator.models.rollerShade.RollerTube;
+import com.vertilux.shadeCalculator.repositories.*;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * EmbeddedCatalogueConfig
+ * <p>
+ *     This class declares the catalogue repositories of the embedded profile, which runs without a database.
+ *     They read the EmbeddedCatalogue snapshot, loaded from a file by the EmbeddedCatalogueService,
+ *     instead of JPA, which is not started in this profile, see application-embedded.yml.
+ * </p>
+ */
+@Configuration
+@Profile("embedded")
+public class EmbeddedCatalogueConfig {
+
+    @Bean
+    public EmbeddedCatalogue embeddedCatalogue() {
+        return new EmbeddedCatalogue();
+    }
+
+    @Bean
+    public UnitRepo unitRepo(EmbeddedCatalogue catalogue) {
+        return catalogue.repository(UnitRepo.class, MeasurementUnit.class);
+    }
+
+    @Bean
+    public ConversionRepo conversionRepo(EmbeddedCatalogue catalogue) {
+        return catalogue.repository(ConversionRepo.class, UnitConversion.class);
+    }
+
+    @Bean
+    public BottomRailRepo bottomRailRepo(EmbeddedCatalogue catalogue) {
+        return catalogue.repository(BottomRailRepo.class, BottomRail.class);
+    }
+
+    @Bean
+    public RollerFabricRepo rollerFabricRepo(EmbeddedCatalogue catalogue) {
+        return catalogue.repository(RollerFabricRepo.class, RollerFabric.class);
+    }
+
+    @Bean
+    public RollerShadeRepo rollerShadeRepo(EmbeddedCatalogue catalogue) {
+        return catalogue.repository(RollerShadeRepo.class, RollerShadeSystem.class);
+    }
+
+    @Bean
+    public RollerTubeRepo rollerTubeRepo(EmbeddedCatalogue catalogue) {
+        return catalogue.repository(RollerTubeRepo.class, RollerTube.class);
+    }
+}
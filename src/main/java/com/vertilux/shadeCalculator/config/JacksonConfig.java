@@ -0,0 +1,54 @@
+package com.vertilux.shadeCalculator.config;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * JacksonConfig
+ * <p>
+ *     The application uses a single ObjectMapper, the one auto-configured by Spring Boot
+ *     (which already registers the JavaTimeModule). It is thread-safe, and is used both
+ *     by Spring MVC to write every Response and by the controllers that stream results.
+ * </p>
+ * <p>
+ *     Clients that send Accept: application/cbor or application/x-jackson-smile get the Response
+ *     in that binary format instead of JSON, written by a mapper built with the same settings.
+ *     JSON stays the default, and the streaming endpoints always write newline delimited JSON.
+ * </p>
+ */
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * @return the customizer applying the application settings to the shared ObjectMapper
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer objectMapperCustomizer() {
+        return builder -> builder.featuresToDisable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    /**
+     * @param builder a new builder, with the application settings already applied
+     * @return the converter reading and writing application/cbor
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    /**
+     * @param builder a new builder, with the application settings already applied
+     * @return the converter reading and writing application/x-jackson-smile
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
@@ -0,0 +1,26 @@
+package com.vertilux.shadeCalculator.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * MetricsConfig
+ * <p>
+ *     This class enables the @Timed annotation on the calculator beans.
+ *     The metrics are exposed through the actuator, see management in application.yml.
+ * </p>
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * @param registry the meter registry the timers are recorded to
+     * @return the aspect that times every method annotated with @Timed
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
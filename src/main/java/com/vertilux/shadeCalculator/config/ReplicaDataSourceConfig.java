@@ -0,0 +1,85 @@
+package com.vertilux.shadeCalculator.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * ReplicaDataSourceConfig
+ * <p>
+ *     This class replaces the single data source with a primary and a replica pool when
+ *     spring.datasource.replica.url is set. Read-only transactions, the get methods of the services
+ *     and the whole CalculatorService, read from the replica, every other statement goes to the primary.
+ *     Reads fall back to the primary while the replica is unreachable or lags behind, see ReplicaLagMonitor,
+ *     and for the maximum lag after every write of this node, see ReplicaRoutingDataSource.
+ * </p>
+ * <p>
+ *     The primary pool keeps the spring.datasource settings,
+ *     the replica pool takes its settings from spring.datasource.replica.hikari.
+ * </p>
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty("spring.datasource.replica.url")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${spring.datasource.replica.url}") String url,
+                                              @Value("${spring.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${spring.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource replica = new HikariDataSource();
+        replica.setPoolName("replica");
+        replica.setDriverClassName(properties.determineDriverClassName());
+        replica.setJdbcUrl(url);
+        replica.setUsername(username);
+        replica.setPassword(password);
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    /**
+     * @param maxLag the replication lag above which reads go to the primary
+     * @param lagQuery the query returning the replication lag, blank to only check that the replica answers
+     */
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replica,
+                                               @Value("${spring.datasource.replica.max-lag:5s}") Duration maxLag,
+                                               @Value("${spring.datasource.replica.lag-query:SHOW SLAVE STATUS}") String lagQuery) {
+        return new ReplicaLagMonitor(replica, maxLag, lagQuery);
+    }
+
+    /**
+     * @return the data source used by JPA, routing each transaction once it runs its first statement
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaLagMonitor replicaLagMonitor,
+                                 @Value("${spring.datasource.replica.max-lag:5s}") Duration maxLag) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica, replicaLagMonitor, maxLag);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -0,0 +1,128 @@
+package com.vertilux.shadeCalculator.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * ReplicaLagMonitor
+ * <p>
+ *     Checks the replica at a fixed interval and tells the ReplicaRoutingDataSource whether reads may go to it.
+ *     The replica is usable while it answers and its replication lag is at most the maximum lag.
+ *     Until the first check passes, and whenever a check fails, reads fall back to the primary.
+ * </p>
+ * <p>
+ *     The lag is read from the Seconds_Behind_Source, or Seconds_Behind_Master, column of the lag query.
+ *     A null lag means replication is stopped, so the replica is not used.
+ *     A query returning no row means the database is not replicating at all, as with two independent
+ *     local databases, and is treated as no lag. A blank lag query only checks that the replica answers.
+ * </p>
+ * <p>
+ *     The lag, in seconds, and whether the replica is usable are published as the
+ *     datasource.replica.lag and datasource.replica.usable metrics.
+ * </p>
+ */
+@Slf4j
+public class ReplicaLagMonitor implements MeterBinder {
+    private static final String[] LAG_COLUMNS = {"Seconds_Behind_Source", "Seconds_Behind_Master"};
+
+    private final DataSource replica;
+    private final Duration maxLag;
+    private final String lagQuery;
+
+    private volatile boolean usable;
+    private boolean checked;
+    private volatile double lagSeconds = Double.NaN;
+
+    public ReplicaLagMonitor(DataSource replica, Duration maxLag, String lagQuery) {
+        this.replica = replica;
+        this.maxLag = maxLag;
+        this.lagQuery = lagQuery;
+    }
+
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+
+    @Scheduled(fixedDelayString = "${spring.datasource.replica.check-interval:PT5S}")
+    public void check() {
+        Long lag;
+        try (Connection connection = replica.getConnection()) {
+            lag = lag(connection);
+        } catch (SQLException e) {
+            log.debug("Replica check failed", e);
+            update(false, Double.NaN, "the replica check failed: " + e.getMessage());
+            return;
+        }
+        if (lag == null) {
+            update(false, Double.NaN, "replication is stopped");
+        } else if (lag > maxLag.toSeconds()) {
+            update(false, lag, "the replica is " + lag + "s behind");
+        } else {
+            update(true, lag, null);
+        }
+    }
+
+    /**
+     * @return the replication lag in seconds, 0 if the database is not replicating, null if replication is stopped
+     */
+    private Long lag(Connection connection) throws SQLException {
+        if (lagQuery == null || lagQuery.isBlank()) {
+            if (!connection.isValid(5)) {
+                throw new SQLException("Connection is not valid");
+            }
+            return 0L;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet status = statement.executeQuery(lagQuery)) {
+            if (!status.next()) {
+                return 0L;
+            }
+            long lag = status.getLong(lagColumn(status.getMetaData()));
+            return status.wasNull() ? null : lag;
+        }
+    }
+
+    private static int lagColumn(ResultSetMetaData metaData) throws SQLException {
+        for (String name : LAG_COLUMNS) {
+            for (int column = 1; column <= metaData.getColumnCount(); column++) {
+                if (name.equalsIgnoreCase(metaData.getColumnLabel(column))) {
+                    return column;
+                }
+            }
+        }
+        throw new SQLException("The lag query returns neither of " + String.join(", ", LAG_COLUMNS));
+    }
+
+    private void update(boolean usable, double lagSeconds, String reason) {
+        // logs the first check, then only the changes
+        if (!checked || usable != this.usable) {
+            if (usable) {
+                log.info("Reading from the replica");
+            } else {
+                log.warn("Reading from the primary, {}", reason);
+            }
+        }
+        this.lagSeconds = lagSeconds;
+        this.usable = usable;
+        checked = true;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("datasource.replica.lag", this, monitor -> monitor.lagSeconds)
+                .baseUnit("seconds").register(registry);
+        Gauge.builder("datasource.replica.usable", this, monitor -> monitor.usable ? 1 : 0)
+                .register(registry);
+    }
+}
@@ -0,0 +1,82 @@
+package com.vertilux.shadeCalculator.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ReplicaRoutingDataSource
+ * <p>
+ *     Hands out the connections of read-only transactions from the replica pool while the ReplicaLagMonitor
+ *     reports the replica as usable, and every other connection from the primary pool.
+ * </p>
+ * <p>
+ *     Once this node writes, reads stay on the primary until the maximum lag has passed since the write committed,
+ *     so they see their own writes: the converter and the catalogue caches rebuilt after a change,
+ *     and the GET responses tagged with the catalogue version the write bumped, which a client would
+ *     otherwise keep as the content of that version, revalidating it with a 304 until the next change.
+ *     The window assumes the replica is at most the maximum lag behind, as checked by the ReplicaLagMonitor,
+ *     and only covers the writes of this node.
+ * </p>
+ * <p>
+ *     The transaction is only known to be read-only once it has started, after the JPA transaction manager
+ *     asked for its connection, so this data source must sit behind a LazyConnectionDataSourceProxy,
+ *     which fetches the connection on the first statement.
+ * </p>
+ *
+ * @see ReplicaDataSourceConfig
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    enum Target {PRIMARY, REPLICA}
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final long maxLagNanos;
+
+    private final AtomicInteger writing = new AtomicInteger();
+    private volatile long primaryUntil = System.nanoTime();
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor, Duration maxLag) {
+        this.lagMonitor = lagMonitor;
+        this.maxLagNanos = maxLag.toNanos();
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return lagMonitor.isReplicaUsable() && !readsOwnWrites() ? Target.REPLICA : Target.PRIMARY;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isSynchronizationActive()) {
+            write();
+        }
+        return Target.PRIMARY;
+    }
+
+    /**
+     * @return true while a write of this node is running, or committed less than the maximum lag ago
+     */
+    boolean readsOwnWrites() {
+        return writing.get() > 0 || System.nanoTime() - primaryUntil < 0;
+    }
+
+    /**
+     * Keeps the reads on the primary until the maximum lag after the current transaction completes.
+     */
+    private void write() {
+        writing.incrementAndGet();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                primaryUntil = System.nanoTime() + maxLagNanos;
+                writing.decrementAndGet();
+            }
+        });
+    }
+}
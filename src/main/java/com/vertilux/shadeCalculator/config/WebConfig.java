@@ -0,0 +1,26 @@
+package com.vertilux.shadeCalculator.config;
+
+import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * WebConfig
+ * <p>
+ *     This class registers the conditional GET support on every endpoint that only reads the catalogue:
+ *     the components, roller shade systems, measurements and the GET system limit.
+ * </p>
+ */
+@AllArgsConstructor
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+    private CatalogueETagInterceptor catalogueETagInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(catalogueETagInterceptor)
+                .addPathPatterns("/components/**", "/roller-shade/**", "/measurement/**", "/calculator/systemLimit/**")
+                .excludePathPatterns("/components/cache-stats/**");
+    }
+}
@@ -1,16 +1,26 @@
 package com.vertilux.shadeCalculator.controllers;
 
 import com.vertilux.shadeCalculator.models.Response;
+import com.vertilux.shadeCalculator.schemas.DeflectionSweepRequest;
 import com.vertilux.shadeCalculator.schemas.GetRollUp;
 import com.vertilux.shadeCalculator.schemas.Schema;
 import com.vertilux.shadeCalculator.schemas.ShadeTemplate;
+import com.vertilux.shadeCalculator.schemas.SystemLimitBatchRequest;
 import com.vertilux.shadeCalculator.schemas.SystemLimitRequest;
+import com.vertilux.shadeCalculator.schemas.TubeRecommendationRequest;
+import com.vertilux.shadeCalculator.services.CalculationJobService;
 import com.vertilux.shadeCalculator.services.CalculatorService;
+import com.vertilux.shadeCalculator.utils.OrderLineReader;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.util.List;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
@@ -23,7 +33,11 @@ import java.util.function.Function;
 @RestController
 @RequestMapping("/calculator")
 public class CalculatorController extends MainController{
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv");
+
     private CalculatorService calculatorService;
+    private CalculationJobService calculationJobService;
 
     private final Function<Schema, Response> getRollUp = (getRollUp) ->
             calculatorService.getRollUp((GetRollUp)getRollUp);
@@ -33,6 +47,12 @@ public class CalculatorController extends MainController{
     private final Function<Schema, Response> getDeflection = (template) ->
             calculatorService.getTubeDeflection((ShadeTemplate) template);
 
+    private final Function<Schema, Response> getDeflectionSweep = (sweep) ->
+            calculatorService.getDeflectionSweep((DeflectionSweepRequest) sweep);
+
+    private final Function<Schema, Response> getTubeRecommendation = (recommendation) ->
+            calculatorService.getTubeRecommendation((TubeRecommendationRequest) recommendation);
+
     @PostMapping("/getRollUp")
     public ResponseEntity<Response> getRollUp(@RequestBody GetRollUp rollUp){
         log.info("Received request to get roll up");
@@ -45,10 +65,122 @@ public class CalculatorController extends MainController{
         return getByTwoParam(getSystemLimit, unit, systemLimitRequest);
     }
 
+    /**
+     * Same as the POST system limit, as a GET so the response can be revalidated with its ETag.
+     */
+    @GetMapping("/systemLimit/{unit}")
+    public ResponseEntity<Response> getSystemLimit(@PathVariable String unit, @RequestParam String systemName, @RequestParam String fabricName){
+        log.info("Received request to get system limit");
+        return getByTwoParam(getSystemLimit, unit, SystemLimitRequest.builder()
+                .systemName(systemName)
+                .fabricName(fabricName)
+                .build());
+    }
+
+    /**
+     * Streams the system limits of many system and fabric pairs as newline delimited JSON,
+     * one Response per line, in the order they complete.
+     */
+    @PostMapping("/systemLimits/{unit}")
+    public ResponseEntity<StreamingResponseBody> getSystemLimits(@PathVariable String unit, @RequestBody SystemLimitBatchRequest batch){
+        log.info("Received request to get a batch of system limits");
+        if (batch == null || batch.getPairs() == null || batch.getPairs().isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = out -> calculatorService.getSystemLimits(unit, batch, response -> writeLine(out, response));
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    /**
+     * Submits the system limits of many system and fabric pairs as an asynchronous job,
+     * and returns its status right away. The /jobs/{id} endpoints return its progress and results.
+     */
+    @PostMapping("/jobs/systemLimits/{unit}")
+    public ResponseEntity<Response> submitSystemLimitsJob(@PathVariable String unit, @RequestBody SystemLimitBatchRequest batch){
+        log.info("Received request to submit a system limits job");
+        if (batch == null || batch.getPairs() == null || batch.getPairs().isEmpty()) {
+            return factory.createBadRequestResponse();
+        }
+        return factory.createOkResponse(calculationJobService.submitSystemLimits(unit, batch));
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<Response> getJobStatus(@PathVariable String id){
+        return getByParam(calculationJobService::getStatus, id);
+    }
+
+    /**
+     * Returns the results of a job calculated so far, starting at the given index.
+     */
+    @GetMapping("/jobs/{id}/results")
+    public ResponseEntity<Response> getJobResults(@PathVariable String id, @RequestParam(defaultValue = "0") int from){
+        return factory.createOkResponse(calculationJobService.getResults(id, from));
+    }
+
+    /**
+     * Streams the results of a job as newline delimited JSON, one Response per line,
+     * including the ones already calculated, until the job is finished.
+     */
+    @GetMapping("/jobs/{id}/stream")
+    public ResponseEntity<StreamingResponseBody> streamJobResults(@PathVariable String id){
+        StreamingResponseBody body = out -> {
+            try {
+                if (!calculationJobService.streamResults(id, response -> writeLine(out, response))) {
+                    writeLine(out, Response.builder().errors(List.of("Job not found")).status("error").build());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    @DeleteMapping("/jobs/{id}")
+    public ResponseEntity<Response> cancelJob(@PathVariable String id){
+        log.info("Received request to cancel a job");
+        return getByParam(calculationJobService::cancel, id);
+    }
+
+    /**
+     * Validates an order file, uploaded as CSV or newline delimited JSON,
+     * and streams one Response per shade back as newline delimited JSON, in the order of the file.
+     * The file is read while the results are written, so it is never held in memory.
+     */
+    @PostMapping(value = "/validateOrder", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<StreamingResponseBody> validateOrder(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream body){
+        log.info("Received request to validate an order");
+        OrderLineReader.Format format = CSV.isCompatibleWith(contentType) ? OrderLineReader.Format.CSV : OrderLineReader.Format.NDJSON;
+        StreamingResponseBody stream = out -> {
+            try (OrderLineReader reader = new OrderLineReader(body, format, mapper)) {
+                calculatorService.validateOrder(reader, response -> writeLine(out, response, false));
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(stream);
+    }
+
     @PostMapping("/getDeflection")
     public ResponseEntity<Response> getDeflection(@RequestBody ShadeTemplate template){
         log.info("Received request to get deflection");
         return request(getDeflection, template);
     }
 
+    /**
+     * Returns the deflection of every width and drop of a grid in one call,
+     * instead of one getDeflection call per point.
+     */
+    @PostMapping("/deflectionSweep")
+    public ResponseEntity<Response> getDeflectionSweep(@RequestBody DeflectionSweepRequest sweep){
+        log.info("Received request to get a deflection sweep");
+        return request(getDeflectionSweep, sweep);
+    }
+
+    /**
+     * Returns the least rigid tube that carries the shade without deflecting past the limit.
+     */
+    @PostMapping("/recommendTube")
+    public ResponseEntity<Response> getTubeRecommendation(@RequestBody TubeRecommendationRequest recommendation){
+        log.info("Received request to recommend a tube");
+        return request(getTubeRecommendation, recommendation);
+    }
+
 }
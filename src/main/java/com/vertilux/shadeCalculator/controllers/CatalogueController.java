@@ -0,0 +1,32 @@
+package com.vertilux.shadeCalculator.controllers;
+
+import com.vertilux.shadeCalculator.services.CatalogueChangeService;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Catalogue Controller
+ * This class handles the endpoints about the catalogue as a whole
+ */
+@AllArgsConstructor
+@Slf4j
+@RestController
+@RequestMapping("/catalogue")
+public class CatalogueController extends MainController {
+    private CatalogueChangeService catalogueChangeService;
+
+    /**
+     * Streams the catalogue changes as Server-Sent Events, from the ones missed since the Last-Event-ID if given.
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter getChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId){
+        log.info("Received request to subscribe to the catalogue changes");
+        return catalogueChangeService.subscribe(lastEventId);
+    }
+}
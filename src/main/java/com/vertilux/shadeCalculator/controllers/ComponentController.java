@@ -1,17 +1,29 @@
 package com.vertilux.shadeCalculator.controllers;
 
 import com.vertilux.shadeCalculator.models.Response;
+import com.vertilux.shadeCalculator.models.rollerShade.BottomRail;
+import com.vertilux.shadeCalculator.models.rollerShade.RollerFabric;
+import com.vertilux.shadeCalculator.models.rollerShade.RollerTube;
 import com.vertilux.shadeCalculator.schemas.BottomRailCreation;
 import com.vertilux.shadeCalculator.schemas.RollerFabricCreation;
 import com.vertilux.shadeCalculator.schemas.RollerTubeCreation;
 import com.vertilux.shadeCalculator.schemas.Schema;
 import com.vertilux.shadeCalculator.services.BottomRailService;
+import com.vertilux.shadeCalculator.services.CataloguePageService;
+import com.vertilux.shadeCalculator.services.CatalogueSnapshotService;
 import com.vertilux.shadeCalculator.services.RollerFabricService;
 import com.vertilux.shadeCalculator.services.RollerTubeService;
+import com.vertilux.shadeCalculator.utils.CatalogueCache;
+import com.vertilux.shadeCalculator.utils.SecondLevelCache;
 import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.List;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -28,11 +40,16 @@ import java.util.function.Supplier;
 
 @AllArgsConstructor
 @RestController
+@Profile("!embedded")
 @RequestMapping("/components")
 public class ComponentController extends MainController {
     private RollerTubeService rollerTubeService;
     private RollerFabricService fabricService;
     private BottomRailService bottomRailService;
+    private CatalogueCache catalogueCache;
+    private CataloguePageService pageService;
+    private SecondLevelCache secondLevelCache;
+    private CatalogueSnapshotService catalogueSnapshotService;
 
     private final Supplier<Response> getAllTubes =
             () -> rollerTubeService.getAllRollerTubes();
@@ -75,6 +92,27 @@ public class ComponentController extends MainController {
 
 
 
+    @GetMapping("/cache-stats")
+    public ResponseEntity<Response> getCacheStats(){
+        return factory.createOkResponse(Response.builder().data(catalogueCache.getStats()).build());
+    }
+
+    @GetMapping("/cache-stats/entities")
+    public ResponseEntity<Response> getEntityCacheStats(){
+        return factory.createOkResponse(Response.builder().data(secondLevelCache.getStats()).build());
+    }
+
+    /**
+     * Downloads the catalogue as a binary snapshot, to be loaded by the nodes running the embedded profile.
+     */
+    @GetMapping("/catalogue/snapshot")
+    public ResponseEntity<StreamingResponseBody> getCatalogueSnapshot(){
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"catalogue.bin\"")
+                .body(catalogueSnapshotService::export);
+    }
+
     @PostMapping("/{serviceName}/save")
     public ResponseEntity<Response> save(@PathVariable("serviceName") String serviceName, @RequestBody Schema object){
         return switch (serviceName) {
@@ -95,6 +133,23 @@ public class ComponentController extends MainController {
         };
     }
 
+    /**
+     * Returns one page of components, ordered by name, with only the fields requested.
+     * The next cursor of the response returns the following page.
+     */
+    @GetMapping("/{serviceName}/get-page")
+    public ResponseEntity<Response> getPage(@PathVariable("serviceName") String serviceName,
+                                            @RequestParam(defaultValue = "" + CataloguePageService.DEFAULT_PAGE_SIZE) int size,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) List<String> fields){
+        return switch (serviceName) {
+            case "tube" -> getAll(() -> pageService.getPage(RollerTube.class, size, cursor, fields));
+            case "fabric" -> getAll(() -> pageService.getPage(RollerFabric.class, size, cursor, fields));
+            case "bottomrail" -> getAll(() -> pageService.getPage(BottomRail.class, size, cursor, fields));
+            default -> factory.createBadRequestResponse();
+        };
+    }
+
     @GetMapping("/{serviceName}/get-by-name")
     public ResponseEntity<Response> getByName(@PathVariable("serviceName") String serviceName, @RequestParam String name){
         return switch (serviceName) {
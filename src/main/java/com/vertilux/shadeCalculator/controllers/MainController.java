@@ -1,11 +1,15 @@
 package com.vertilux.shadeCalculator.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.vertilux.shadeCalculator.models.Response;
 import com.vertilux.shadeCalculator.schemas.Schema;
 import com.vertilux.shadeCalculator.utils.ResponseFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -22,6 +26,9 @@ public class MainController {
     @Autowired
     protected ResponseFactory factory;
 
+    @Autowired
+    protected ObjectMapper mapper;
+
 
     /**
      * @param supply the Supplier method to be used
@@ -33,7 +40,7 @@ public class MainController {
         if(result == null){
             responseEntity = factory.createNoContentResponse();
         }else{
-            responseEntity = factory.createOkResponse(supply.get());
+            responseEntity = factory.createOkResponse(result);
         }
         return responseEntity;
     }
@@ -99,4 +106,32 @@ public class MainController {
         }
         return responseEntity;
     }
+
+    /**
+     * Writes an object as one line of newline delimited JSON, and flushes it to the client.
+     * @param out the stream of the response body
+     * @param object the object to be written
+     */
+    protected void writeLine(OutputStream out, Object object) {
+        writeLine(out, object, true);
+    }
+
+    /**
+     * Writes an object as one line of newline delimited JSON.
+     * Without a flush, the line is sent once the response buffer is full, or the response ends.
+     * @param out the stream of the response body
+     * @param object the object to be written
+     * @param flush whether to send the line to the client right away
+     */
+    protected void writeLine(OutputStream out, Object object, boolean flush) {
+        try {
+            out.write(mapper.writeValueAsBytes(object));
+            out.write('\n');
+            if (flush) {
+                out.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
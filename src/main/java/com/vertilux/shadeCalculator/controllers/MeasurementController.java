@@ -6,6 +6,7 @@ import com.vertilux.shadeCalculator.schemas.Schema;
 import com.vertilux.shadeCalculator.services.MeasurementService;
 import jakarta.websocket.server.PathParam;
 import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -23,6 +24,7 @@ import java.util.function.Supplier;
 
 @AllArgsConstructor
 @RestController
+@Profile("!embedded")
 @RequestMapping("/measurement")
 public class MeasurementController extends MainController{
     private MeasurementService measurementService;
@@ -1,14 +1,18 @@
 package com.vertilux.shadeCalculator.controllers;
 
 import com.vertilux.shadeCalculator.models.Response;
+import com.vertilux.shadeCalculator.models.rollerShade.RollerShadeSystem;
 import com.vertilux.shadeCalculator.schemas.Schema;
 import com.vertilux.shadeCalculator.schemas.RollerShadeSystemCreation;
+import com.vertilux.shadeCalculator.services.CataloguePageService;
 import com.vertilux.shadeCalculator.services.RollerShadeService;
 import jakarta.websocket.server.PathParam;
 import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -23,9 +27,11 @@ import java.util.function.Supplier;
 
 @AllArgsConstructor
 @RestController
+@Profile("!embedded")
 @RequestMapping("/roller-shade")
 public class RollerShadeController extends MainController{
     private RollerShadeService rollerShadeService;
+    private CataloguePageService pageService;
 
     private final Supplier<Response> getAll = () -> rollerShadeService.getAll();
     private final Function<Schema, Response> save = (system) -> rollerShadeService.save((RollerShadeSystemCreation) system);
@@ -44,6 +50,17 @@ public class RollerShadeController extends MainController{
         return getAll(getAll);
     }
 
+    /**
+     * Returns one page of systems, ordered by name, with only the fields requested.
+     * The next cursor of the response returns the following page.
+     */
+    @GetMapping("/get-page")
+    public ResponseEntity<Response> getPage(@RequestParam(defaultValue = "" + CataloguePageService.DEFAULT_PAGE_SIZE) int size,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) List<String> fields){
+        return getAll(() -> pageService.getPage(RollerShadeSystem.class, size, cursor, fields));
+    }
+
     @GetMapping("/")
     public ResponseEntity<Response> getByName(@PathParam("name") String name, @PathParam("id") String id){
         if(name != null){
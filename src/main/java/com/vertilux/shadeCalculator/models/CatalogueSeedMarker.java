@@ -0,0 +1,33 @@
+package com.vertilux.shadeCalculator.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * CatalogueSeedMarker
+ * This class records which version of the catalogue seed the database holds,
+ * so the seed is only written once per version.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+@Entity
+@Table(name="catalogue_seed")
+public class CatalogueSeedMarker {
+    public static final String ID = "catalogue";
+
+    @Id
+    @Column(name="id")
+    private String id;
+    private String version;
+    private Instant seededAt;
+}
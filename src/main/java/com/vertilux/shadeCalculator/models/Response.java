@@ -1,6 +1,5 @@
 package com.vertilux.shadeCalculator.models;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -11,6 +10,8 @@ import java.util.List;
 
 /**
  * This class is used to represent a response from the server
+ * The data is the domain object itself, it is serialized straight to the
+ * response body by the shared ObjectMapper, without an intermediate JsonNode.
  *
  * @version 1.0
  * @author Franklin Neves Filho
@@ -21,7 +22,7 @@ import java.util.List;
 @AllArgsConstructor
 @Data
 public class Response {
-    private JsonNode data;
+    private Object data;
 
     @Builder.Default
     private String status = "success";
@@ -1,8 +1,11 @@
 package com.vertilux.shadeCalculator.models.measurements;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.vertilux.shadeCalculator.utils.SecondLevelCache;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @AllArgsConstructor
 @NoArgsConstructor
@@ -10,6 +13,8 @@ import lombok.*;
 @Builder
 @Data
 @Table(name="measurement_units")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCache.UNIT_REGION)
 public class MeasurementUnit {
     @Id
     @JsonIgnore
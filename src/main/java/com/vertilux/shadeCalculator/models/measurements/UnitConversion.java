@@ -1,11 +1,14 @@
 package com.vertilux.shadeCalculator.models.measurements;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.vertilux.shadeCalculator.utils.SecondLevelCache;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @NoArgsConstructor
 @AllArgsConstructor
@@ -13,6 +16,8 @@ import lombok.NoArgsConstructor;
 @Data
 @Entity
 @Table(name="unit_conversions")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCache.CONVERSION_REGION)
 public class UnitConversion {
     @Id
     @JsonIgnore
@@ -3,18 +3,23 @@ package com.vertilux.shadeCalculator.models.rollerShade;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.vertilux.shadeCalculator.models.measurements.Measurement;
 import com.vertilux.shadeCalculator.utils.MeasurementConverter;
+import com.vertilux.shadeCalculator.utils.SecondLevelCache;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
 @Entity
 @Data
-@Table(name="bottom_rails")
+@Table(name="bottom_rails", indexes = @Index(columnList = "name"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCache.BOTTOM_RAIL_REGION)
 public class BottomRail {
     @Id
     @JsonIgnore
@@ -29,4 +34,8 @@ public class BottomRail {
             @AttributeOverride(name = "unit", column = @Column(name = "weight_unit"))
     })
     private Measurement weight;
+
+    // SI value written by the CatalogueNormaliser, null if the unit could not be converted
+    @JsonIgnore
+    private Double weightSi; // kg/m
 }
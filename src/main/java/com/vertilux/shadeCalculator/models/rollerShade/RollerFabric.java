@@ -1,12 +1,16 @@
 package com.vertilux.shadeCalculator.models.rollerShade;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.vertilux.shadeCalculator.models.measurements.Measurement;
 import com.vertilux.shadeCalculator.utils.MeasurementConverter;
+import com.vertilux.shadeCalculator.utils.SecondLevelCache;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.beans.factory.annotation.Autowired;
 
 @NoArgsConstructor
@@ -14,7 +18,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 @Builder
 @Data
 @Entity
-@Table(name="roller_shade_fabric")
+@Table(name="roller_shade_fabric", indexes = @Index(columnList = "name"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCache.FABRIC_REGION)
 public class RollerFabric {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -35,4 +41,10 @@ public class RollerFabric {
             @AttributeOverride(name = "unit", column = @Column(name = "weight_unit"))
     })
     private Measurement weight;
+
+    // SI values written by the CatalogueNormaliser, null if a unit could not be converted
+    @JsonIgnore
+    private Double thicknessSi; // m
+    @JsonIgnore
+    private Double weightSi; // kg/m2
 }
@@ -1,9 +1,13 @@
 package com.vertilux.shadeCalculator.models.rollerShade;
 
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.vertilux.shadeCalculator.models.measurements.Measurement;
+import com.vertilux.shadeCalculator.utils.SecondLevelCache;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * This class represents a RollerShadeSystem
@@ -19,7 +23,9 @@ import lombok.*;
 @Data
 @Entity
 @Builder
-@Table(name="roller_systems")
+@Table(name="roller_systems", indexes = @Index(columnList = "name"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCache.SYSTEM_REGION)
 public class RollerShadeSystem {
 
     @Id
@@ -36,4 +42,8 @@ public class RollerShadeSystem {
             @AttributeOverride(name = "unit", column = @Column(name = "diameter_unit"))
     })
     private Measurement maxDiameter;
+
+    // SI value written by the CatalogueNormaliser, null if the unit could not be converted
+    @JsonIgnore
+    private Double maxDiameterSi; // m
 }
@@ -1,19 +1,26 @@
 package com.vertilux.shadeCalculator.models.rollerShade;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.vertilux.shadeCalculator.models.measurements.Measurement;
 import com.vertilux.shadeCalculator.utils.MeasurementConverter;
+import com.vertilux.shadeCalculator.utils.SecondLevelCache;
+import com.vertilux.shadeCalculator.utils.UnitRegistry;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
 @Data
 @Entity
-@Table(name="roller_tubes")
+@Table(name="roller_tubes", indexes = @Index(columnList = "name"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCache.TUBE_REGION)
 public class RollerTube {
     @Transient
     MeasurementConverter measurementConverter;
@@ -63,17 +70,34 @@ public class RollerTube {
             .unit("g/cm^3")
             .build();
 
+    // SI and derived values written by the CatalogueNormaliser, null if a unit could not be converted
+    @JsonIgnore
+    private Double outerDiameterSi; // m
+    @JsonIgnore
+    private Double innerDiameterSi; // m
+    @JsonIgnore
+    private Double wallThicknessSi; // m
+    @JsonIgnore
+    private Double modulusSi; // Pa
+    @JsonIgnore
+    private Double momentOfInertiaSi; // m^4
+
 
     /**
      * This method calculates the thickness of the tube.
      * returns -1 if the unit is not found
+     * Units are compared by their UnitRegistry id, so different spellings of the same unit match.
      * @return the thickness of the tube (outer diameter - inner diameter)
      */
     public Measurement getThickness(){
         double difference = -1;
-        if(outerDiameter.getUnit().equals(innerDiameter.getUnit())){
+        int outerUnit = UnitRegistry.find(outerDiameter.getUnit());
+        boolean sameUnit = outerUnit != UnitRegistry.UNKNOWN_UNIT
+                ? outerUnit == UnitRegistry.find(innerDiameter.getUnit())
+                : outerDiameter.getUnit().equals(innerDiameter.getUnit());
+        if(sameUnit){
             difference = outerDiameter.getValue() - innerDiameter.getValue();
-        } else {
+        } else if(measurementConverter != null){
             Measurement convertedInnerDiameter = measurementConverter.convert(innerDiameter, outerDiameter.getUnit());
             if(convertedInnerDiameter.getValue() != -1){
                 difference = outerDiameter.getValue() - convertedInnerDiameter.getValue();
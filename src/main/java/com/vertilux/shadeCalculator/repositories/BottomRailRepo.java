@@ -1,7 +1,10 @@
 package com.vertilux.shadeCalculator.repositories;
 
 import com.vertilux.shadeCalculator.models.rollerShade.BottomRail;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
 
@@ -17,5 +20,6 @@ import java.util.Optional;
  * @author Franklin Neves Filho
  */
 public interface BottomRailRepo extends JpaRepository<BottomRail, String> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<BottomRail> findByName(String bottomRailName);
 }
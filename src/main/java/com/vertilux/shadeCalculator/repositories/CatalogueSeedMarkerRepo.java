@@ -0,0 +1,19 @@
+package com.vertilux.shadeCalculator.repositories;
+
+import com.vertilux.shadeCalculator.models.CatalogueSeedMarker;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * CatalogueSeedMarkerRepo
+ * <p>
+ *     This interface is responsible for handling the database operations for the CatalogueSeedMarker entity.
+ *     It is used by the CatalogueSeedService class to tell whether the catalogue seed was already written.
+ * </p>
+ *
+ * @see CatalogueSeedMarker
+ */
+
+@Repository
+public interface CatalogueSeedMarkerRepo extends JpaRepository<CatalogueSeedMarker, String> {
+}
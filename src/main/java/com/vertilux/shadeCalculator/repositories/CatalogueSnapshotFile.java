@@ -0,0 +1,554 @@
+package com.vertilux.shadeCalculator.repositories;
+
+import com.vertilux.shadeCalculator.models.measurements.Measurement;
+import com.vertilux.shadeCalculator.models.measurements.MeasurementUnit;
+import com.vertilux.shadeCalculator.models.measurements.UnitConversion;
+import com.vertilux.shadeCalculator.models.rollerShade.BottomRail;
+import com.vertilux.shadeCalculator.models.rollerShade.RollerFabric;
+import com.vertilux.shadeCalculator.models.rollerShade.RollerShadeSystem;
+import com.vertilux.shadeCalculator.models.rollerShade.RollerTube;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * CatalogueSnapshotFile
+ * <p>
+ *     Writes the catalogue as a compact binary file, and reads it back from a memory mapped buffer,
+ *     which the embedded profile loads instead of parsing and normalising the JSON catalogue.
+ * </p>
+ * <p>
+ *     Every string is stored once, in a sorted dictionary, and referenced by its index, so the unit of a measurement
+ *     is an int and every measurement in that unit shares one String. Each table is an array of fixed width rows
+ *     of primitive columns, sorted by name, followed by its row numbers sorted by id. As the dictionary is sorted,
+ *     names and ids compare as ints, and a lookup by id or name is a binary search over the mapped rows.
+ *     A row only becomes an entity the first time it is read, with the SI values stored in the file.
+ * </p>
+ * <p>
+ *     The layout is big-endian:
+ *     the header holds the magic "SHCT", the format version and table count as shorts, and the catalogue version;
+ *     the dictionary holds the string count, the end offset of each string and their UTF-8 bytes;
+ *     then each table, in the order units, conversions, bottom rails, fabrics, systems and tubes,
+ *     holds its row count, row width, rows and row numbers sorted by id.
+ *     A string of -1 is null, a measurement is its value followed by its unit, null when the unit is -1,
+ *     and a missing SI value is NaN.
+ * </p>
+ * <p>
+ *     The mapping stays open while the snapshot is used, so a new file must replace the old one by a rename
+ *     rather than be written over it.
+ * </p>
+ */
+public final class CatalogueSnapshotFile {
+    public static final int MAGIC = 0x53484354; // "SHCT"
+    public static final short FORMAT_VERSION = 1;
+
+    private static final short TABLES = 6;
+    private static final int NULL = -1;
+    private static final int HEADER_BYTES = 12;
+    private static final int MEASUREMENT_BYTES = Double.BYTES + Integer.BYTES;
+    private static final int UNIT_BYTES = 2 * Integer.BYTES;
+    private static final int CONVERSION_BYTES = 3 * Integer.BYTES + Double.BYTES;
+    private static final int BOTTOM_RAIL_BYTES = 2 * Integer.BYTES + MEASUREMENT_BYTES + Double.BYTES;
+    private static final int FABRIC_BYTES = 2 * Integer.BYTES + 2 * MEASUREMENT_BYTES + 2 * Double.BYTES;
+    private static final int SYSTEM_BYTES = 2 * Integer.BYTES + MEASUREMENT_BYTES + Double.BYTES;
+    private static final int TUBE_BYTES = 2 * Integer.BYTES + 4 * MEASUREMENT_BYTES + 5 * Double.BYTES;
+
+    private final ByteBuffer buffer;
+    private final Dictionary dictionary;
+    private final Rows<MeasurementUnit> units;
+    private final Map<Class<?>, List<?>> tables = new LinkedHashMap<>();
+    private final String version;
+
+    private CatalogueSnapshotFile(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a catalogue snapshot");
+        }
+        if (buffer.getShort(4) != FORMAT_VERSION || buffer.getShort(6) != TABLES) {
+            throw new IOException("Unsupported catalogue snapshot format " + buffer.getShort(4));
+        }
+        dictionary = new Dictionary(HEADER_BYTES);
+        version = dictionary.get(buffer.getInt(8));
+
+        units = new Rows<>(dictionary.end, UNIT_BYTES, "Unit", this::unit);
+        Rows<UnitConversion> conversions = new Rows<>(units.end, CONVERSION_BYTES, null, this::conversion);
+        Rows<BottomRail> bottomRails = new Rows<>(conversions.end, BOTTOM_RAIL_BYTES, "Name", this::bottomRail);
+        Rows<RollerFabric> fabrics = new Rows<>(bottomRails.end, FABRIC_BYTES, "Name", this::fabric);
+        Rows<RollerShadeSystem> systems = new Rows<>(fabrics.end, SYSTEM_BYTES, "Name", this::system);
+        Rows<RollerTube> tubes = new Rows<>(systems.end, TUBE_BYTES, "Name", this::tube);
+        tables.put(MeasurementUnit.class, units);
+        tables.put(UnitConversion.class, conversions);
+        tables.put(BottomRail.class, bottomRails);
+        tables.put(RollerFabric.class, fabrics);
+        tables.put(RollerShadeSystem.class, systems);
+        tables.put(RollerTube.class, tubes);
+    }
+
+    /**
+     * @param file the file to map
+     * @return the snapshot, reading the file through a read-only mapping
+     * @throws IOException if the file cannot be mapped or is not a catalogue snapshot
+     */
+    public static CatalogueSnapshotFile map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Catalogue snapshots over 2 GB are not supported");
+            }
+            return new CatalogueSnapshotFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * @param file the file to check
+     * @return true if the file starts like a catalogue snapshot, rather than a JSON catalogue
+     */
+    public static boolean isSnapshot(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] magic = in.readNBytes(Integer.BYTES);
+            return magic.length == Integer.BYTES && ByteBuffer.wrap(magic).getInt() == MAGIC;
+        }
+    }
+
+    /**
+     * @return the catalogue version the snapshot was written with
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the rows of each entity class, as lists read from the mapped file, see EmbeddedCatalogue.replace
+     */
+    public Map<Class<?>, List<?>> getTables() {
+        return tables;
+    }
+
+    /**
+     * @return the rows of the entity class, read from the mapped file
+     */
+    @SuppressWarnings("unchecked")
+    public <E> List<E> getTable(Class<E> entity) {
+        return (List<E>) tables.get(entity);
+    }
+
+    /**
+     * @return true if both files have the same content
+     */
+    public boolean contentEquals(CatalogueSnapshotFile other) {
+        return other != null && buffer.equals(other.buffer);
+    }
+
+    /**
+     * This method writes the catalogue as a snapshot. The stream is flushed but not closed.
+     * The SI values are written as they are, so the components should be normalised.
+     * @param version the catalogue version to record in the snapshot
+     */
+    public static void write(OutputStream out, String version, List<MeasurementUnit> units, List<UnitConversion> conversions,
+                             List<BottomRail> bottomRails, List<RollerFabric> fabrics,
+                             List<RollerShadeSystem> systems, List<RollerTube> tubes) throws IOException {
+        TreeSet<String> strings = new TreeSet<>();
+        collect(strings, version);
+        units.forEach(unit -> collect(strings, unit.getId(), unit.getUnit()));
+        conversions.forEach(conversion -> collect(strings, conversion.getId()));
+        bottomRails.forEach(rail -> collect(strings, rail.getId(), rail.getName(), unitOf(rail.getWeight())));
+        fabrics.forEach(fabric -> collect(strings, fabric.getId(), fabric.getName(),
+                unitOf(fabric.getThickness()), unitOf(fabric.getWeight())));
+        systems.forEach(system -> collect(strings, system.getId(), system.getName(), unitOf(system.getMaxDiameter())));
+        tubes.forEach(tube -> collect(strings, tube.getId(), tube.getName(), unitOf(tube.getOuterDiameter()),
+                unitOf(tube.getInnerDiameter()), unitOf(tube.getModulus()), unitOf(tube.getDensity())));
+
+        Map<String, Integer> refs = new HashMap<>();
+        for (String string : strings) {
+            refs.put(string, refs.size());
+        }
+        ToIntFunction<String> ref = string -> string == null ? NULL : refs.get(string);
+
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(MAGIC);
+        data.writeShort(FORMAT_VERSION);
+        data.writeShort(TABLES);
+        data.writeInt(ref.applyAsInt(version));
+
+        List<byte[]> encoded = new ArrayList<>(strings.size());
+        strings.forEach(string -> encoded.add(string.getBytes(StandardCharsets.UTF_8)));
+        data.writeInt(encoded.size());
+        int end = 0;
+        for (byte[] string : encoded) {
+            end += string.length;
+            data.writeInt(end);
+        }
+        for (byte[] string : encoded) {
+            data.write(string);
+        }
+
+        List<MeasurementUnit> sortedUnits = sorted(units, unit -> ref.applyAsInt(unit.getUnit()));
+        Map<String, Integer> unitRows = new HashMap<>();
+        sortedUnits.forEach(unit -> unitRows.putIfAbsent(unit.getUnit(), unitRows.size()));
+        ToIntFunction<MeasurementUnit> unitRow = unit -> {
+            Integer row = unit == null ? null : unitRows.get(unit.getUnit());
+            if (row == null) {
+                throw new IllegalArgumentException("Conversion unit not in the catalogue: " + unit);
+            }
+            return row;
+        };
+
+        writeTable(data, sortedUnits, UNIT_BYTES, ref, MeasurementUnit::getId, (row, unit) -> {
+            row.writeInt(ref.applyAsInt(unit.getId()));
+            row.writeInt(ref.applyAsInt(unit.getUnit()));
+        });
+        writeTable(data, conversions, CONVERSION_BYTES, ref, UnitConversion::getId, (row, conversion) -> {
+            row.writeInt(ref.applyAsInt(conversion.getId()));
+            row.writeInt(unitRow.applyAsInt(conversion.getFrom()));
+            row.writeInt(unitRow.applyAsInt(conversion.getTo()));
+            row.writeDouble(conversion.getFactor());
+        });
+        writeTable(data, sorted(bottomRails, rail -> ref.applyAsInt(rail.getName())), BOTTOM_RAIL_BYTES,
+                ref, BottomRail::getId, (row, rail) -> {
+            row.writeInt(ref.applyAsInt(rail.getId()));
+            row.writeInt(ref.applyAsInt(rail.getName()));
+            writeMeasurement(row, rail.getWeight(), ref);
+            writeSi(row, rail.getWeightSi());
+        });
+        writeTable(data, sorted(fabrics, fabric -> ref.applyAsInt(fabric.getName())), FABRIC_BYTES,
+                ref, RollerFabric::getId, (row, fabric) -> {
+            row.writeInt(ref.applyAsInt(fabric.getId()));
+            row.writeInt(ref.applyAsInt(fabric.getName()));
+            writeMeasurement(row, fabric.getThickness(), ref);
+            writeMeasurement(row, fabric.getWeight(), ref);
+            writeSi(row, fabric.getThicknessSi());
+            writeSi(row, fabric.getWeightSi());
+        });
+        writeTable(data, sorted(systems, system -> ref.applyAsInt(system.getName())), SYSTEM_BYTES,
+                ref, RollerShadeSystem::getId, (row, system) -> {
+            row.writeInt(ref.applyAsInt(system.getId()));
+            row.writeInt(ref.applyAsInt(system.getName()));
+            writeMeasurement(row, system.getMaxDiameter(), ref);
+            writeSi(row, system.getMaxDiameterSi());
+        });
+        writeTable(data, sorted(tubes, tube -> ref.applyAsInt(tube.getName())), TUBE_BYTES,
+                ref, RollerTube::getId, (row, tube) -> {
+            row.writeInt(ref.applyAsInt(tube.getId()));
+            row.writeInt(ref.applyAsInt(tube.getName()));
+            writeMeasurement(row, tube.getOuterDiameter(), ref);
+            writeMeasurement(row, tube.getInnerDiameter(), ref);
+            writeMeasurement(row, tube.getModulus(), ref);
+            writeMeasurement(row, tube.getDensity(), ref);
+            writeSi(row, tube.getOuterDiameterSi());
+            writeSi(row, tube.getInnerDiameterSi());
+            writeSi(row, tube.getWallThicknessSi());
+            writeSi(row, tube.getModulusSi());
+            writeSi(row, tube.getMomentOfInertiaSi());
+        });
+        data.flush();
+    }
+
+    private interface RowWriter<E> {
+        void write(DataOutputStream row, E entity) throws IOException;
+    }
+
+    private static <E> void writeTable(DataOutputStream data, List<E> rows, int width, ToIntFunction<String> ref,
+                                       Function<E, String> id, RowWriter<E> writer) throws IOException {
+        data.writeInt(rows.size());
+        data.writeInt(width);
+        for (E entity : rows) {
+            int start = data.size();
+            writer.write(data, entity);
+            if (data.size() - start != width) {
+                throw new IllegalStateException("Row of " + (data.size() - start) + " bytes instead of " + width);
+            }
+        }
+        List<Integer> byId = new ArrayList<>(rows.size());
+        for (int row = 0; row < rows.size(); row++) {
+            byId.add(row);
+        }
+        byId.sort(Comparator.comparingInt(row -> ref.applyAsInt(id.apply(rows.get(row)))));
+        for (int row : byId) {
+            data.writeInt(row);
+        }
+    }
+
+    private static void writeMeasurement(DataOutputStream row, Measurement measurement, ToIntFunction<String> ref) throws IOException {
+        row.writeDouble(measurement == null ? 0 : measurement.getValue());
+        row.writeInt(measurement == null ? NULL : ref.applyAsInt(measurement.getUnit()));
+    }
+
+    private static void writeSi(DataOutputStream row, Double value) throws IOException {
+        row.writeDouble(value == null ? Double.NaN : value);
+    }
+
+    private static <E> List<E> sorted(List<E> rows, ToIntFunction<E> key) {
+        List<E> sorted = new ArrayList<>(rows);
+        sorted.sort(Comparator.comparingInt(key));
+        return sorted;
+    }
+
+    private static void collect(TreeSet<String> strings, String... values) {
+        for (String value : values) {
+            if (value != null) {
+                strings.add(value);
+            }
+        }
+    }
+
+    private static String unitOf(Measurement measurement) {
+        return measurement == null ? null : measurement.getUnit();
+    }
+
+    private MeasurementUnit unit(int offset) {
+        return MeasurementUnit.builder()
+                .id(string(offset))
+                .unit(string(offset + Integer.BYTES))
+                .build();
+    }
+
+    private UnitConversion conversion(int offset) {
+        return UnitConversion.builder()
+                .id(string(offset))
+                .from(units.get(buffer.getInt(offset + Integer.BYTES)))
+                .to(units.get(buffer.getInt(offset + 2 * Integer.BYTES)))
+                .factor(buffer.getDouble(offset + 3 * Integer.BYTES))
+                .build();
+    }
+
+    private BottomRail bottomRail(int offset) {
+        int values = offset + 2 * Integer.BYTES;
+        return BottomRail.builder()
+                .id(string(offset))
+                .name(string(offset + Integer.BYTES))
+                .weight(measurement(values))
+                .weightSi(si(values + MEASUREMENT_BYTES))
+                .build();
+    }
+
+    private RollerFabric fabric(int offset) {
+        int values = offset + 2 * Integer.BYTES;
+        int si = values + 2 * MEASUREMENT_BYTES;
+        return RollerFabric.builder()
+                .id(string(offset))
+                .name(string(offset + Integer.BYTES))
+                .thickness(measurement(values))
+                .weight(measurement(values + MEASUREMENT_BYTES))
+                .thicknessSi(si(si))
+                .weightSi(si(si + Double.BYTES))
+                .build();
+    }
+
+    private RollerShadeSystem system(int offset) {
+        int values = offset + 2 * Integer.BYTES;
+        return RollerShadeSystem.builder()
+                .id(string(offset))
+                .name(string(offset + Integer.BYTES))
+                .maxDiameter(measurement(values))
+                .maxDiameterSi(si(values + MEASUREMENT_BYTES))
+                .build();
+    }
+
+    private RollerTube tube(int offset) {
+        int values = offset + 2 * Integer.BYTES;
+        int si = values + 4 * MEASUREMENT_BYTES;
+        return RollerTube.builder()
+                .id(string(offset))
+                .name(string(offset + Integer.BYTES))
+                .outerDiameter(measurement(values))
+                .innerDiameter(measurement(values + MEASUREMENT_BYTES))
+                .modulus(measurement(values + 2 * MEASUREMENT_BYTES))
+                .density(measurement(values + 3 * MEASUREMENT_BYTES))
+                .outerDiameterSi(si(si))
+                .innerDiameterSi(si(si + Double.BYTES))
+                .wallThicknessSi(si(si + 2 * Double.BYTES))
+                .modulusSi(si(si + 3 * Double.BYTES))
+                .momentOfInertiaSi(si(si + 4 * Double.BYTES))
+                .build();
+    }
+
+    private String string(int offset) {
+        return dictionary.get(buffer.getInt(offset));
+    }
+
+    private Measurement measurement(int offset) {
+        int unit = buffer.getInt(offset + Double.BYTES);
+        if (unit == NULL) {
+            return null;
+        }
+        return Measurement.builder()
+                .value(buffer.getDouble(offset))
+                .unit(dictionary.get(unit))
+                .build();
+    }
+
+    private Double si(int offset) {
+        double value = buffer.getDouble(offset);
+        return Double.isNaN(value) ? null : value;
+    }
+
+    private static IOException truncated() {
+        return new IOException("Truncated catalogue snapshot");
+    }
+
+    /**
+     * The sorted strings of the file, each decoded the first time it is read.
+     */
+    private final class Dictionary {
+        private final int ends;
+        private final int bytes;
+        private final int end;
+        // a string decoded twice by racing readers is equal either way
+        private final String[] strings;
+
+        private Dictionary(int offset) throws IOException {
+            int count = buffer.getInt(offset);
+            ends = offset + Integer.BYTES;
+            long start = ends + (long) count * Integer.BYTES;
+            if (count < 0 || start > buffer.limit()) {
+                throw truncated();
+            }
+            bytes = (int) start;
+            long last = bytes + (count == 0 ? 0L : buffer.getInt(ends + (count - 1) * Integer.BYTES));
+            if (last > buffer.limit()) {
+                throw truncated();
+            }
+            end = (int) last;
+            strings = new String[count];
+        }
+
+        private String get(int ref) {
+            if (ref == NULL) {
+                return null;
+            }
+            String string = strings[ref];
+            if (string == null) {
+                int from = ref == 0 ? 0 : buffer.getInt(ends + (ref - 1) * Integer.BYTES);
+                byte[] utf8 = new byte[buffer.getInt(ends + ref * Integer.BYTES) - from];
+                buffer.get(bytes + from, utf8);
+                string = new String(utf8, StandardCharsets.UTF_8);
+                strings[ref] = string;
+            }
+            return string;
+        }
+
+        /**
+         * @return the index of the string, -1 if it is not in the file
+         */
+        private int indexOf(String value) {
+            int low = 0;
+            int high = strings.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                int comparison = get(middle).compareTo(value);
+                if (comparison < 0) {
+                    low = middle + 1;
+                } else if (comparison > 0) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return NULL;
+        }
+    }
+
+    /**
+     * The rows of one table, each decoded into an entity the first time it is read.
+     * The second column of every table but the conversions is the one the rows are sorted on.
+     */
+    private final class Rows<E> extends AbstractList<E> implements SortedRows {
+        private final int start;
+        private final int size;
+        private final int width;
+        private final int byId;
+        private final int end;
+        private final String sortedOn;
+        private final IntFunction<E> decoder;
+        private final AtomicReferenceArray<E> decoded;
+
+        private Rows(int offset, int expectedWidth, String sortedOn, IntFunction<E> decoder) throws IOException {
+            if (offset + 2L * Integer.BYTES > buffer.limit()) {
+                throw truncated();
+            }
+            size = buffer.getInt(offset);
+            width = buffer.getInt(offset + Integer.BYTES);
+            if (width != expectedWidth) {
+                throw new IOException("Unexpected row width " + width + " in catalogue snapshot, expected " + expectedWidth);
+            }
+            start = offset + 2 * Integer.BYTES;
+            long ids = start + (long) size * width;
+            long last = ids + (long) size * Integer.BYTES;
+            if (size < 0 || last > buffer.limit()) {
+                throw truncated();
+            }
+            byId = (int) ids;
+            end = (int) last;
+            this.sortedOn = sortedOn;
+            this.decoder = decoder;
+            this.decoded = new AtomicReferenceArray<>(size);
+        }
+
+        @Override
+        public E get(int row) {
+            Objects.checkIndex(row, size);
+            E entity = decoded.get(row);
+            if (entity == null) {
+                // racing readers keep the first entity, so a row is always the same instance
+                decoded.compareAndSet(row, null, decoder.apply(start + row * width));
+                entity = decoded.get(row);
+            }
+            return entity;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean isSortedOn(String property) {
+            return "Id".equals(property) || property.equals(sortedOn);
+        }
+
+        @Override
+        public Object find(String property, String value) {
+            int ref = dictionary.indexOf(value);
+            if (ref == NULL) {
+                return null;
+            }
+            boolean id = "Id".equals(property);
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                int row = id ? buffer.getInt(byId + middle * Integer.BYTES) : middle;
+                int key = buffer.getInt(start + row * width + (id ? 0 : Integer.BYTES));
+                if (key < ref) {
+                    low = middle + 1;
+                } else if (key > ref) {
+                    high = middle - 1;
+                } else {
+                    return get(row);
+                }
+            }
+            return null;
+        }
+    }
+}
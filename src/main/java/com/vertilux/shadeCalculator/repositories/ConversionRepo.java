@@ -2,7 +2,10 @@ package com.vertilux.shadeCalculator.repositories;
 
 import com.vertilux.shadeCalculator.models.measurements.MeasurementUnit;
 import com.vertilux.shadeCalculator.models.measurements.UnitConversion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -17,5 +20,6 @@ import java.util.Optional;
  */
 @Repository
 public interface ConversionRepo extends JpaRepository<UnitConversion, String> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<UnitConversion> findByFromAndTo(MeasurementUnit fromUnit, MeasurementUnit toUnit);
 }
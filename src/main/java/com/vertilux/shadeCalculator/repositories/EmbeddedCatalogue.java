@@ -0,0 +1,203 @@
+package com.vertilux.shadeCalculator.repositories;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * EmbeddedCatalogue
+ * <p>
+ *     Holds an immutable snapshot of the catalogue, used instead of the database in the embedded profile,
+ *     and implements the repository interfaces on top of it, so the calculator reads the snapshot
+ *     through the same repositories it uses with a database.
+ * </p>
+ * <p>
+ *     The snapshot is replaced as a whole: every repository call reads from the one snapshot current
+ *     when it starts, and never sees part of an older or newer catalogue.
+ * </p>
+ * <p>
+ *     The repositories are read-only. They support findAll, findById, findAllById, existsById, count,
+ *     and derived finders such as findByName or findByFromAndTo, which match on the entity getters.
+ *     The lists of a CatalogueSnapshotFile are searched by id and name in the mapped file instead.
+ *     Every other method throws an UnsupportedOperationException.
+ * </p>
+ */
+public class EmbeddedCatalogue {
+    private volatile Snapshot snapshot = new Snapshot(null, Map.of());
+
+    /**
+     * @return the version of the current snapshot, null before the first one is loaded
+     */
+    public String getVersion() {
+        return snapshot.version;
+    }
+
+    /**
+     * @param version the version of the new snapshot
+     * @param entities the entities of the new snapshot by entity class, each must have a String getId
+     */
+    public void replace(String version, Map<Class<?>, List<?>> entities) {
+        Map<Class<?>, Table> tables = new LinkedHashMap<>();
+        entities.forEach((entity, list) -> tables.put(entity, new Table(list)));
+        snapshot = new Snapshot(version, Map.copyOf(tables));
+    }
+
+    /**
+     * @param repository the repository interface to implement
+     * @param entity the entity class of the repository
+     * @return a read-only implementation of the repository over the current snapshot
+     */
+    public <R> R repository(Class<R> repository, Class<?> entity) {
+        return repository.cast(Proxy.newProxyInstance(
+                repository.getClassLoader(), new Class<?>[]{repository}, new ReadOnlyRepository(entity)));
+    }
+
+    private static final class Snapshot {
+        private final String version;
+        private final Map<Class<?>, Table> tables;
+
+        private Snapshot(String version, Map<Class<?>, Table> tables) {
+            this.version = version;
+            this.tables = tables;
+        }
+    }
+
+    private static final class Table {
+        private static final Table EMPTY = new Table(List.of());
+
+        private final List<?> all;
+        private final Map<String, Object> byId;
+        // set when the rows search themselves, as those of a CatalogueSnapshotFile, which are not copied
+        private final SortedRows sorted;
+
+        private Table(List<?> entities) {
+            if (entities instanceof SortedRows rows) {
+                this.all = entities;
+                this.byId = Map.of();
+                this.sorted = rows;
+            } else {
+                this.all = List.copyOf(entities);
+                this.byId = new LinkedHashMap<>();
+                this.sorted = null;
+                for (Object entity : all) {
+                    byId.put(id(entity), entity);
+                }
+            }
+        }
+
+        private Object byId(String id) {
+            return sorted != null ? sorted.find("Id", id) : byId.get(id);
+        }
+
+        private static String id(Object entity) {
+            try {
+                return (String) entity.getClass().getMethod("getId").invoke(entity);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalArgumentException("Entity without a String getId: " + entity.getClass(), e);
+            }
+        }
+    }
+
+    private final class ReadOnlyRepository implements InvocationHandler {
+        private final Class<?> entity;
+        private final Map<Method, Method[]> finders = new ConcurrentHashMap<>();
+
+        private ReadOnlyRepository(Class<?> entity) {
+            this.entity = entity;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Table table = snapshot.tables.getOrDefault(entity, Table.EMPTY);
+            String name = method.getName();
+            int arguments = args == null ? 0 : args.length;
+            switch (name) {
+                case "findAll":
+                    if (arguments == 0) {
+                        return new ArrayList<>(table.all);
+                    }
+                    break;
+                case "findById":
+                    return Optional.ofNullable(table.byId((String) args[0]));
+                case "findAllById":
+                    List<Object> found = new ArrayList<>();
+                    for (Object id : (Iterable<?>) args[0]) {
+                        Object match = table.byId((String) id);
+                        if (match != null) {
+                            found.add(match);
+                        }
+                    }
+                    return found;
+                case "existsById":
+                    return table.byId((String) args[0]) != null;
+                case "count":
+                    if (arguments == 0) {
+                        return (long) table.all.size();
+                    }
+                    break;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "EmbeddedCatalogue repository of " + entity.getSimpleName();
+                default:
+                    if (name.startsWith("findBy")) {
+                        return findBy(table, method, args);
+                    }
+            }
+            throw new UnsupportedOperationException("The embedded catalogue is read-only, " + name + " is not supported");
+        }
+
+        private Object findBy(Table table, Method method, Object[] args) throws ReflectiveOperationException {
+            boolean single = !Collection.class.isAssignableFrom(method.getReturnType());
+            String property = method.getName().substring("findBy".length());
+            if (single && table.sorted != null && args.length == 1 && args[0] instanceof String value
+                    && table.sorted.isSortedOn(property)) {
+                return Optional.ofNullable(table.sorted.find(property, value));
+            }
+            Method[] getters = finders.computeIfAbsent(method, getters(entity));
+            List<Object> found = new ArrayList<>();
+            for (Object candidate : table.all) {
+                boolean matches = true;
+                for (int i = 0; i < getters.length && matches; i++) {
+                    matches = Objects.equals(getters[i].invoke(candidate), args[i]);
+                }
+                if (matches) {
+                    found.add(candidate);
+                }
+            }
+            if (single) {
+                return found.stream().findFirst();
+            }
+            return found;
+        }
+    }
+
+    /**
+     * @return the getters of the properties a derived finder, such as findByFromAndTo, matches on
+     */
+    private static Function<Method, Method[]> getters(Class<?> entity) {
+        return finder -> {
+            String[] properties = finder.getName().substring("findBy".length()).split("And");
+            Method[] getters = new Method[properties.length];
+            for (int i = 0; i < properties.length; i++) {
+                try {
+                    getters[i] = entity.getMethod("get" + properties[i]);
+                } catch (NoSuchMethodException e) {
+                    throw new UnsupportedOperationException("Unsupported finder " + finder.getName(), e);
+                }
+            }
+            return getters;
+        };
+    }
+}
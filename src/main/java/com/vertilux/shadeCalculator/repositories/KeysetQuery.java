@@ -0,0 +1,139 @@
+package com.vertilux.shadeCalculator.repositories;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.vertilux.shadeCalculator.schemas.KeysetPage;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.Attribute;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * KeysetQuery
+ * <p>
+ *     This class pages through the entities of the catalogue, ordered by name then id.
+ *     Each page starts after the name and id of the last entity of the previous page,
+ *     so the database seeks straight to it through the name index instead of skipping an offset.
+ * </p>
+ * <p>
+ *     Only the requested fields are selected. They are checked against the persistent fields of the entity
+ *     that are not ignored in its JSON, and the id and name are always included.
+ * </p>
+ */
+@Repository
+@Profile("!embedded")
+@RequiredArgsConstructor
+public class KeysetQuery {
+    private static final String ID = "id";
+    private static final String NAME = "name";
+    private static final char SEPARATOR = '\u0000';
+
+    private final EntityManager entityManager;
+
+    /**
+     * @param entity the entity to page through, it must have an id and a name
+     * @param size the maximum number of entities in the page
+     * @param cursor the next cursor of the previous page, null for the first page
+     * @param fields the fields to return, empty for every field
+     * @return the page of entities
+     * @throws IllegalArgumentException if a field is unknown or the cursor is invalid
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage page(Class<?> entity, int size, String cursor, List<String> fields) {
+        Set<String> selected = select(entity, fields);
+
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<?> root = query.from(entity);
+        List<Selection<?>> selections = new ArrayList<>(selected.size());
+        selected.forEach(field -> selections.add(root.get(field).alias(field)));
+        query.multiselect(selections);
+
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] after = decode(cursor);
+            query.where(builder.or(
+                    builder.greaterThan(root.<String>get(NAME), after[0]),
+                    builder.and(
+                            builder.equal(root.<String>get(NAME), after[0]),
+                            builder.greaterThan(root.<String>get(ID), after[1]))));
+        }
+        query.orderBy(builder.asc(root.<String>get(NAME)), builder.asc(root.<String>get(ID)));
+
+        // one more row than the page tells whether there is a next page
+        List<Tuple> rows = entityManager.createQuery(query).setMaxResults(size + 1).getResultList();
+        List<Map<String, Object>> items = new ArrayList<>(Math.min(rows.size(), size));
+        for (int i = 0; i < rows.size() && i < size; i++) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            for (String field : selected) {
+                item.put(field, rows.get(i).get(field));
+            }
+            items.add(item);
+        }
+
+        String next = null;
+        if (rows.size() > size) {
+            Map<String, Object> last = items.get(items.size() - 1);
+            next = encode((String) last.get(NAME), (String) last.get(ID));
+        }
+        return KeysetPage.builder().items(items).next(next).build();
+    }
+
+    /**
+     * @return the id, the name and the requested fields, or every persistent field if none is requested
+     */
+    private Set<String> select(Class<?> entity, List<String> fields) {
+        Set<String> known = new LinkedHashSet<>();
+        for (Attribute<?, ?> attribute : entityManager.getMetamodel().entity(entity).getSingularAttributes()) {
+            // fields hidden from the JSON of the entity are not exposed through the page either
+            if (!(attribute.getJavaMember() instanceof Field field) || !field.isAnnotationPresent(JsonIgnore.class)) {
+                known.add(attribute.getName());
+            }
+        }
+
+        Set<String> selected = new LinkedHashSet<>(List.of(ID, NAME));
+        if (fields == null || fields.isEmpty()) {
+            selected.addAll(known);
+            return selected;
+        }
+        for (String field : fields) {
+            if (!known.contains(field)) {
+                throw new IllegalArgumentException("Unknown field: " + field);
+            }
+            selected.add(field);
+        }
+        return selected;
+    }
+
+    private static String encode(String name, String id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((name + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the name and id of the cursor
+     */
+    private static String[] decode(String cursor) {
+        String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        int separator = decoded.lastIndexOf(SEPARATOR);
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return new String[]{decoded.substring(0, separator), decoded.substring(separator + 1)};
+    }
+}
@@ -1,7 +1,10 @@
 package com.vertilux.shadeCalculator.repositories;
 
 import com.vertilux.shadeCalculator.models.rollerShade.RollerFabric;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -20,5 +23,6 @@ import java.util.Optional;
 
 @Repository
 public interface RollerFabricRepo extends JpaRepository<RollerFabric, String> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<RollerFabric> findByName(String fabricName);
 }
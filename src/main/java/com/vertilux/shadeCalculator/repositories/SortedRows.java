@@ -0,0 +1,26 @@
+package com.vertilux.shadeCalculator.repositories;
+
+/**
+ * SortedRows
+ * <p>
+ *     A table of the EmbeddedCatalogue that finds its rows by id, and by the property it is sorted on, itself,
+ *     instead of the maps and scans the catalogue builds for a plain list of entities.
+ * </p>
+ *
+ * @see CatalogueSnapshotFile
+ */
+interface SortedRows {
+
+    /**
+     * @param property the property of a derived finder, such as Id or Name
+     * @return true if the rows can be searched on the property
+     */
+    boolean isSortedOn(String property);
+
+    /**
+     * @param property a property the rows are sorted on
+     * @param value the value to find
+     * @return a row with the value, null if there is none
+     */
+    Object find(String property, String value);
+}
@@ -1,7 +1,10 @@
 package com.vertilux.shadeCalculator.repositories;
 
 import com.vertilux.shadeCalculator.models.measurements.MeasurementUnit;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -14,5 +17,6 @@ import java.util.Optional;
 
 @Repository
 public interface UnitRepo extends JpaRepository<MeasurementUnit, String> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<MeasurementUnit> findByUnit(String unit);
 }
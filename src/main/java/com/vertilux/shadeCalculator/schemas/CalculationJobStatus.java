@@ -0,0 +1,32 @@
+package com.vertilux.shadeCalculator.schemas;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * CalculationJobStatus
+ * The state and progress of an asynchronous calculation job.
+ * The total is -1 until the job has resolved what it has to calculate,
+ * and the job is forgotten after its expiry, with its results.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class CalculationJobStatus {
+    public enum State { QUEUED, RUNNING, DONE, FAILED, CANCELLED }
+
+    private String id;
+    private State state;
+    private int total;
+    private int completed;
+    private Instant submittedAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private Instant expiresAt;
+    private String error;
+}
@@ -0,0 +1,32 @@
+package com.vertilux.shadeCalculator.schemas;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * CatalogueChange
+ * The change of one catalogue entity, published once the write is committed,
+ * with the catalogue version it produced, see GET /catalogue/changes.
+ * A RELOADED change replaces the whole catalogue and has no type or id.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class CatalogueChange {
+    public static final String TUBE = "tube";
+    public static final String FABRIC = "fabric";
+    public static final String BOTTOM_RAIL = "bottomrail";
+    public static final String SYSTEM = "system";
+    public static final String UNIT = "unit";
+    public static final String CONVERSION = "conversion";
+
+    public enum Action { SAVED, DELETED, RELOADED }
+
+    private String type;
+    private String id;
+    private Action action;
+    private long version;
+}
@@ -0,0 +1,32 @@
+package com.vertilux.shadeCalculator.schemas;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * CatalogueSeed
+ * This class is the schema of the catalogue seed file, see resources/catalogue/seed.json.
+ * The version must change whenever the content of the file changes,
+ * otherwise a database already seeded with the previous content is not updated.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class CatalogueSeed {
+    private String version;
+    @Builder.Default
+    private List<ConversionCreation> conversions = List.of();
+    @Builder.Default
+    private List<BottomRailCreation> bottomRails = List.of();
+    @Builder.Default
+    private List<RollerFabricCreation> fabrics = List.of();
+    @Builder.Default
+    private List<RollerShadeSystemCreation> systems = List.of();
+    @Builder.Default
+    private List<RollerTubeCreation> tubes = List.of();
+}
@@ -0,0 +1,21 @@
+package com.vertilux.shadeCalculator.schemas;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DeflectionSweepRequest
+ * This class is a schema to get the tube deflection of every width and drop in a grid at once.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class DeflectionSweepRequest implements Schema {
+    private String fabricName;
+    private String tubeName;
+    private SweepRange width;
+    private SweepRange drop;
+}
@@ -0,0 +1,27 @@
+package com.vertilux.shadeCalculator.schemas;
+
+import com.vertilux.shadeCalculator.models.measurements.Measurement;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DeflectionSweepResponse
+ * This class holds the deflection grid of a sweep.
+ * deflections[i][j] is the deflection at drops[i] and widths[j], in the deflection unit.
+ * Widths and drops are in the units of the request.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class DeflectionSweepResponse {
+    private String fabricName;
+    private String tubeName;
+    private double[] widths;
+    private double[] drops;
+    private String unit;
+    private double[][] deflections;
+    private Measurement maxDeflection;
+}
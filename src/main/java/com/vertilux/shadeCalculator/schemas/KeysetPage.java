@@ -0,0 +1,23 @@
+package com.vertilux.shadeCalculator.schemas;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * KeysetPage
+ * This class holds one page of catalogue entities, with only the fields requested.
+ * The next cursor returns the following page, and is null on the last page.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class KeysetPage {
+    private List<Map<String, Object>> items;
+    private String next;
+}
@@ -0,0 +1,25 @@
+package com.vertilux.shadeCalculator.schemas;
+
+import com.vertilux.shadeCalculator.models.measurements.Measurement;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * OrderLine
+ * This class is a schema for one shade of an order file.
+ * The line is the line number of the shade in the file.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class OrderLine implements Schema {
+    private long line;
+    private String fabricName;
+    private String tubeName;
+    private String systemName;
+    private Measurement width;
+    private Measurement drop;
+}
@@ -0,0 +1,29 @@
+package com.vertilux.shadeCalculator.schemas;
+
+import com.vertilux.shadeCalculator.models.measurements.Measurement;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * OrderLineResult
+ * This class holds the validation of one shade of an order file.
+ * The shade is valid if its roll up fits in the system and its tube deflection is within the limit,
+ * otherwise the problems list every limit exceeded.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class OrderLineResult {
+    private long line;
+    private boolean valid;
+    private Measurement rollUp;
+    private Measurement maxRollUp;
+    private Measurement deflection;
+    private Measurement maxDeflection;
+    private List<String> problems;
+}
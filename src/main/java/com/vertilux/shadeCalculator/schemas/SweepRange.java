@@ -0,0 +1,22 @@
+package com.vertilux.shadeCalculator.schemas;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * SweepRange
+ * This class is a schema for an evenly spaced range of values, from and to included.
+ * All three values are in the same unit.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class SweepRange {
+    private double from;
+    private double to;
+    private double step;
+    private String unit;
+}
@@ -0,0 +1,23 @@
+package com.vertilux.shadeCalculator.schemas;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * SystemLimitBatchRequest
+ * This class is a schema to get the system limits of many system and fabric pairs at once.
+ * A system or fabric name of "*" matches every system or fabric in the catalogue.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class SystemLimitBatchRequest implements Schema {
+    public static final String WILDCARD = "*";
+
+    private List<SystemLimitRequest> pairs;
+}
@@ -1,5 +1,7 @@
 package com.vertilux.shadeCalculator.schemas;
 
+import com.vertilux.shadeCalculator.models.rollerShade.RollerFabric;
+import com.vertilux.shadeCalculator.models.rollerShade.RollerShadeSystem;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -15,4 +17,12 @@ public class SystemLimitResponse {
     private String systemName;
     private RollerFabricResponse fabric;
     private List<SystemLimit> limits;
+
+    public static SystemLimitResponse getSystemLimitResponse(RollerShadeSystem system, RollerFabric fabric, List<SystemLimit> limits) {
+        return SystemLimitResponse.builder()
+                .systemName(system.getName())
+                .fabric(RollerFabricResponse.getRollerFabricResponse(fabric))
+                .limits(limits)
+                .build();
+    }
 }
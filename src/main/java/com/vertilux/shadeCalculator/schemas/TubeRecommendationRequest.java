@@ -0,0 +1,21 @@
+package com.vertilux.shadeCalculator.schemas;
+
+import com.vertilux.shadeCalculator.models.measurements.Measurement;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * TubeRecommendationRequest
+ * This class is a schema to find the least rigid tube that can carry a shade.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class TubeRecommendationRequest implements Schema {
+    private String fabricName;
+    private Measurement width;
+    private Measurement drop;
+}
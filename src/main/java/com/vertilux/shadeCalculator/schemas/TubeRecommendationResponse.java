@@ -0,0 +1,17 @@
+package com.vertilux.shadeCalculator.schemas;
+
+import com.vertilux.shadeCalculator.models.measurements.Measurement;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class TubeRecommendationResponse {
+    private RollerTubeResponse tube;
+    private Measurement deflection;
+    private Measurement maxDeflection;
+}
@@ -5,10 +5,15 @@ import com.vertilux.shadeCalculator.models.measurements.Measurement;
 import com.vertilux.shadeCalculator.models.rollerShade.BottomRail;
 import com.vertilux.shadeCalculator.repositories.BottomRailRepo;
 import com.vertilux.shadeCalculator.schemas.BottomRailCreation;
+import com.vertilux.shadeCalculator.schemas.CatalogueChange;
 import com.vertilux.shadeCalculator.utils.MeasurementConverter;
+import com.vertilux.shadeCalculator.utils.CatalogueCache;
+import com.vertilux.shadeCalculator.utils.CatalogueNormaliser;
+import com.vertilux.shadeCalculator.utils.CatalogueChangePublisher;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -23,20 +28,24 @@ import java.util.Optional;
 @Slf4j
 @AllArgsConstructor
 @Service
-public class BottomRailService extends MainService {
+public class BottomRailService {
     private final BottomRailRepo bottomRailRepo;
     private final MeasurementConverter measurementConverter;
+    private final CatalogueChangePublisher catalogueChangePublisher;
+    private final CatalogueCache catalogueCache;
+    private final CatalogueNormaliser catalogueNormaliser;
 
     /**
      * This method returns all the bottom rails in the database.
      *
      * @return Response object with all the bottom rails
      */
+    @Transactional(readOnly = true)
     public Response getAllBottomRails() {
         List<BottomRail> bottomRails = bottomRailRepo.findAll();
 
         return Response.builder()
-                .data(mapToJson(bottomRails))
+                .data(bottomRails)
                 .build();
     }
 
@@ -46,11 +55,12 @@ public class BottomRailService extends MainService {
      * @param bottomRailName The name of the bottom rail to be found
      * @return Response object with the found BottomRail
      */
+    @Transactional(readOnly = true)
     public Response getBottomRailByName(String bottomRailName) {
-        BottomRail found = bottomRailRepo.findByName(bottomRailName).orElse(null);
+        BottomRail found = catalogueCache.findBottomRail(bottomRailName).orElse(null);
         if (found != null) {
             return Response.builder()
-                    .data(mapToJson(found))
+                    .data(found)
                     .build();
         } else {
             return Response.builder()
@@ -67,11 +77,12 @@ public class BottomRailService extends MainService {
      * @param bottomRailId The id of the bottom rail to be found
      * @return Response object with the found BottomRail
      */
+    @Transactional(readOnly = true)
     public Response getBottomRailById(String bottomRailId) {
         BottomRail found = bottomRailRepo.findById(bottomRailId).orElse(null);
         if (found != null) {
             return Response.builder()
-                    .data(mapToJson(found))
+                    .data(found)
                     .build();
         } else {
             return Response.builder()
@@ -100,9 +111,11 @@ public class BottomRailService extends MainService {
                     .name(bottomRail.getName())
                     .weight(bottomRail.getWeight())
                     .build();
-            BottomRail savedBottomRail = bottomRailRepo.save(newBottomRail);
+            BottomRail savedBottomRail = bottomRailRepo.save(catalogueNormaliser.normalise(newBottomRail));
+            catalogueCache.put(savedBottomRail);
+            catalogueChangePublisher.saved(CatalogueChange.BOTTOM_RAIL, savedBottomRail.getId());
             return Response.builder()
-                    .data(mapToJson(savedBottomRail))
+                    .data(savedBottomRail)
                     .build();
         }
     }
@@ -117,6 +130,8 @@ public class BottomRailService extends MainService {
         BottomRail found = bottomRailRepo.findById(bottomRailId).orElse(null);
         if (found != null) {
             bottomRailRepo.deleteById(bottomRailId);
+            catalogueCache.evictBottomRail(bottomRailId);
+            catalogueChangePublisher.deleted(CatalogueChange.BOTTOM_RAIL, bottomRailId);
             return Response.builder()
                     .build();
         } else {
@@ -140,9 +155,11 @@ public class BottomRailService extends MainService {
             BottomRail updatedBottomRail = found.get();
             updatedBottomRail.setName(bottomRail.getName());
             updatedBottomRail.setWeight(bottomRail.getWeight());
-            BottomRail savedBottomRail = bottomRailRepo.save(updatedBottomRail);
+            BottomRail savedBottomRail = bottomRailRepo.save(catalogueNormaliser.normalise(updatedBottomRail));
+            catalogueCache.put(savedBottomRail);
+            catalogueChangePublisher.saved(CatalogueChange.BOTTOM_RAIL, savedBottomRail.getId());
             return Response.builder()
-                    .data(mapToJson(savedBottomRail))
+                    .data(savedBottomRail)
                     .build();
         } else {
             return Response.builder()
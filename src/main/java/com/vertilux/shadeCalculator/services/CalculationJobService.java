@@ -0,0 +1,297 @@
+package com.vertilux.shadeCalculator.services;
+
+import com.vertilux.shadeCalculator.models.Response;
+import com.vertilux.shadeCalculator.schemas.CalculationJobStatus;
+import com.vertilux.shadeCalculator.schemas.CalculationJobStatus.State;
+import com.vertilux.shadeCalculator.schemas.SystemLimitBatchRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Consumer;
+
+/**
+ * CalculationJobService
+ * <p>
+ *     This class runs large calculations as asynchronous jobs, on the bounded calculation job executor
+ *     instead of the request threads. A job is submitted, then polled by its id for its progress and results,
+ *     which are available as soon as each one is calculated.
+ * </p>
+ * <p>
+ *     Finished jobs are kept, with their results, for the configured retention,
+ *     and forgotten the next time a job is submitted, finishes or is looked up after it.
+ *     At most the configured number of finished jobs is kept, the oldest ones are forgotten first,
+ *     so a burst of large batches cannot fill the heap with results before they expire.
+ * </p>
+ */
+@Slf4j
+@Service
+public class CalculationJobService {
+    private static final String NOT_FOUND = "Job not found";
+
+    private final CalculatorService calculatorService;
+    private final ThreadPoolExecutor executor;
+    private final Duration retention;
+    private final int maxRetained;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    public CalculationJobService(CalculatorService calculatorService,
+                                 @Qualifier("calculationJobExecutor") ThreadPoolExecutor executor,
+                                 @Value("${calculator.jobs.retention:10m}") Duration retention,
+                                 @Value("${calculator.jobs.max-retained:100}") int maxRetained) {
+        this.calculatorService = calculatorService;
+        this.executor = executor;
+        this.retention = retention;
+        this.maxRetained = maxRetained;
+    }
+
+    /**
+     * This method submits a job calculating the system limits of many system and fabric pairs.
+     * @param unit The unit the limits are returned in
+     * @param batch The system and fabric pairs, "*" matches every system or fabric
+     * @return Response object with the status of the submitted job, or an error if too many jobs are waiting
+     */
+    public Response submitSystemLimits(String unit, SystemLimitBatchRequest batch) {
+        purge();
+        Job job = new Job(UUID.randomUUID().toString());
+        jobs.put(job.id, job);
+        try {
+            job.future = executor.submit(() -> run(job, unit, batch));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            return Response.builder()
+                    .errors(List.of("Too many calculation jobs, try again later"))
+                    .status("error")
+                    .build();
+        }
+        return Response.builder()
+                .data(job.status(retention))
+                .build();
+    }
+
+    /**
+     * @param id The id of the job
+     * @return Response object with the status of the job
+     */
+    public Response getStatus(String id) {
+        Job job = find(id);
+        if (job == null) {
+            return notFound();
+        }
+        return Response.builder()
+                .data(job.status(retention))
+                .build();
+    }
+
+    /**
+     * @param id The id of the job
+     * @param from The index of the first result to return, so a client only fetches the results it has not seen yet
+     * @return Response object with the results calculated so far, in the order they completed
+     */
+    public Response getResults(String id, int from) {
+        Job job = find(id);
+        if (job == null) {
+            return notFound();
+        }
+        return Response.builder()
+                .data(job.results(Math.max(0, from)))
+                .build();
+    }
+
+    /**
+     * Hands every result of a job to the consumer, waiting for the ones still being calculated,
+     * and returns once the job is finished and every result was handed over.
+     * @param id The id of the job
+     * @param consumer Receives the results in the order they completed
+     * @return false if the job is not found
+     * @throws InterruptedException if interrupted while waiting for a result
+     */
+    public boolean streamResults(String id, Consumer<Response> consumer) throws InterruptedException {
+        Job job = find(id);
+        if (job == null) {
+            return false;
+        }
+        int next = 0;
+        while (true) {
+            List<Response> results = job.awaitResults(next);
+            if (results.isEmpty()) {
+                return true;
+            }
+            results.forEach(consumer);
+            next += results.size();
+        }
+    }
+
+    /**
+     * @param id The id of the job
+     * @return Response object with the status of the job, cancelled unless it had already finished
+     */
+    public Response cancel(String id) {
+        Job job = find(id);
+        if (job == null) {
+            return notFound();
+        }
+        job.cancel();
+        return Response.builder()
+                .data(job.status(retention))
+                .build();
+    }
+
+    private void run(Job job, String unit, SystemLimitBatchRequest batch) {
+        if (!job.start()) {
+            return;
+        }
+        try {
+            calculatorService.getSystemLimits(unit, batch, job::plan, job::add);
+            // getSystemLimits returns early, and keeps the interrupt, when the job is cancelled
+            job.finish(Thread.interrupted() ? State.CANCELLED : State.DONE, null);
+        } catch (RuntimeException e) {
+            log.error("Calculation job {} failed", job.id, e);
+            job.finish(State.FAILED, "Failed to calculate the job");
+        }
+        purge();
+    }
+
+    private Job find(String id) {
+        purge();
+        return id == null ? null : jobs.get(id);
+    }
+
+    /**
+     * Forgets the jobs that finished longer than the retention ago,
+     * then the oldest finished jobs beyond the maximum retained.
+     */
+    private synchronized void purge() {
+        Instant expired = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.finishedBefore(expired));
+        List<Job> finished = jobs.values().stream()
+                .filter(Job::isFinished)
+                .sorted(Comparator.comparing(Job::getFinishedAt))
+                .toList();
+        for (int i = 0; i < finished.size() - maxRetained; i++) {
+            jobs.remove(finished.get(i).id);
+        }
+    }
+
+    private static Response notFound() {
+        return Response.builder()
+                .errors(List.of(NOT_FOUND))
+                .status("error")
+                .build();
+    }
+
+    /**
+     * The state and results of one job, guarded by its own monitor.
+     */
+    private static final class Job {
+        private final String id;
+        private final Instant submittedAt = Instant.now();
+        private final List<Response> results = new ArrayList<>();
+        private volatile Future<?> future;
+        private State state = State.QUEUED;
+        private int total = -1;
+        private Instant startedAt;
+        private Instant finishedAt;
+        private String error;
+
+        private Job(String id) {
+            this.id = id;
+        }
+
+        /**
+         * @return false if the job was cancelled before it started
+         */
+        synchronized boolean start() {
+            if (state != State.QUEUED) {
+                return false;
+            }
+            state = State.RUNNING;
+            startedAt = Instant.now();
+            return true;
+        }
+
+        synchronized void plan(int total) {
+            this.total = total;
+        }
+
+        synchronized void add(Response result) {
+            results.add(result);
+            notifyAll();
+        }
+
+        synchronized void finish(State state, String error) {
+            if (finishedAt != null) {
+                return;
+            }
+            this.state = state;
+            this.error = error;
+            finishedAt = Instant.now();
+            notifyAll();
+        }
+
+        void cancel() {
+            Future<?> running = future;
+            if (running != null) {
+                running.cancel(true);
+            }
+            synchronized (this) {
+                // a running job finishes itself once interrupted
+                if (state == State.QUEUED) {
+                    finish(State.CANCELLED, null);
+                }
+            }
+        }
+
+        synchronized boolean isFinished() {
+            return finishedAt != null;
+        }
+
+        synchronized Instant getFinishedAt() {
+            return finishedAt;
+        }
+
+        synchronized boolean finishedBefore(Instant instant) {
+            return finishedAt != null && finishedAt.isBefore(instant);
+        }
+
+        synchronized List<Response> results(int from) {
+            return from >= results.size() ? List.of() : List.copyOf(results.subList(from, results.size()));
+        }
+
+        /**
+         * @return the results from the index, waiting for at least one unless the job is finished
+         */
+        synchronized List<Response> awaitResults(int from) throws InterruptedException {
+            while (from >= results.size() && finishedAt == null) {
+                wait();
+            }
+            return results(from);
+        }
+
+        synchronized CalculationJobStatus status(Duration retention) {
+            return CalculationJobStatus.builder()
+                    .id(id)
+                    .state(state)
+                    .total(total)
+                    .completed(results.size())
+                    .submittedAt(submittedAt)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .expiresAt(finishedAt == null ? null : finishedAt.plus(retention))
+                    .error(error)
+                    .build();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.vertilux.shadeCalculator.services;
 import com.vertilux.shadeCalculator.models.Response;
 import com.vertilux.shadeCalculator.models.measurements.Measurement;
+import com.vertilux.shadeCalculator.models.rollerShade.BottomRail;
 import com.vertilux.shadeCalculator.models.rollerShade.RollerFabric;
 import com.vertilux.shadeCalculator.models.rollerShade.RollerShadeSystem;
 import com.vertilux.shadeCalculator.models.rollerShade.RollerTube;
@@ -8,17 +9,39 @@ import com.vertilux.shadeCalculator.repositories.RollerFabricRepo;
 import com.vertilux.shadeCalculator.repositories.RollerShadeRepo;
 import com.vertilux.shadeCalculator.repositories.RollerTubeRepo;
 import com.vertilux.shadeCalculator.schemas.*;
+import com.vertilux.shadeCalculator.utils.CatalogueCache;
+import com.vertilux.shadeCalculator.utils.MeasurementConverter;
+import com.vertilux.shadeCalculator.utils.OrderLineReader;
 import com.vertilux.shadeCalculator.utils.ShadeCalculator;
+import com.vertilux.shadeCalculator.utils.SystemLimitCache;
+import com.vertilux.shadeCalculator.utils.TubeIndex;
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 
 /**
  * Calculator Service
  * This class converts all responses from the ShadeCalculator class into a Response object
+ * Every public method is timed in the calculator.service metric, and runs in a read-only transaction,
+ * except the streaming ones, whose repository calls each run in their own.
  * @see ShadeCalculator for precise usage
  * @author Franklin Neves Filho
  */
@@ -26,11 +49,20 @@ import java.util.List;
 @Slf4j
 @AllArgsConstructor
 @Service
-public class CalculatorService extends MainService{
+@Timed("calculator.service")
+@Transactional(readOnly = true)
+public class CalculatorService {
+    private static final int MAX_SWEEP_POINTS = 250_000;
+
     private final ShadeCalculator shadeCalculator;
+    private final SystemLimitCache systemLimitCache;
+    private final CatalogueCache catalogueCache;
+    private final TubeIndex tubeIndex;
+    private final MeasurementConverter measurementConverter;
     private final RollerFabricRepo rollerFabricRepo;
     private final RollerShadeRepo rollerShadeRepo;
     private final RollerTubeRepo rollerTubeRepo;
+    private final ForkJoinPool calculatorPool;
 
     /**
      * This method returns the roll up of a shade.
@@ -44,49 +76,118 @@ public class CalculatorService extends MainService{
                 getRollUp.getFabricThickness()
         );
         return Response.builder()
-                .data(mapToJson(rollUp))
+                .data(rollUp)
                 .build();
     }
 
     /**
-     * This method takes in a shade proposal and returns the system limits
+     * This method takes in a shade proposal and returns the system limits.
+     * The limits are served from the SystemLimitCache, which recomputes them only when the catalogue changes.
      * @param shadeProposal The schema with the necessary data to calculate the system limits
      * @return Response object with the system limits
      */
     public Response getSystemLimit(String unit, SystemLimitRequest shadeProposal) {
-        RollerShadeSystem system = rollerShadeRepo.findByName(shadeProposal.getSystemName()).orElse(null);
-        RollerFabric fabric = rollerFabricRepo.findByName(shadeProposal.getFabricName()).orElse(null);
-        if (fabric == null || system == null) {
+        SystemLimitResponse response = systemLimitCache.getSystemLimits(
+                unit,
+                shadeProposal.getSystemName(),
+                shadeProposal.getFabricName()
+        );
+        if (response == null) {
             return Response.builder()
                     .errors(List.of("Fabric, tube or system not found"))
                     .build();
         }
 
-        List<SystemLimit> systemLimits = shadeCalculator.getAllSystemLimits(
-                unit,
-                system,
-                fabric
-        );
-
-        SystemLimitResponse response = SystemLimitResponse.builder()
-                .systemName(system.getName())
-                .fabric(RollerFabricResponse.getRollerFabricResponse(fabric))
-                .limits(systemLimits)
-                .build();
-
         return Response.builder()
-                .data(mapToJson(response))
+                .data(response)
                 .build();
     }
 
+    /**
+     * This method calculates the system limits of many system and fabric pairs in one call.
+     * Every system, fabric and tube is resolved once, then each pair is evaluated in parallel
+     * on the calculator pool. Each result is handed to the consumer as soon as it completes,
+     * so the results are not in the same order as the request.
+     * @param unit The unit the limits are returned in
+     * @param batch The system and fabric pairs, "*" matches every system or fabric
+     * @param consumer Receives one Response per pair, or per name that could not be found
+     */
+    // streams its results, so no connection is held for the whole stream
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void getSystemLimits(String unit, SystemLimitBatchRequest batch, Consumer<Response> consumer) {
+        getSystemLimits(unit, batch, total -> {}, consumer);
+    }
+
+    /**
+     * Same as getSystemLimits, also reporting how many Responses the consumer will receive in total.
+     * @param unit The unit the limits are returned in
+     * @param batch The system and fabric pairs, "*" matches every system or fabric
+     * @param planned Receives the total number of Responses once every pair is resolved, before the first limit is calculated
+     * @param consumer Receives one Response per pair, or per name that could not be found
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void getSystemLimits(String unit, SystemLimitBatchRequest batch, IntConsumer planned, Consumer<Response> consumer) {
+        Map<String, RollerShadeSystem> systems = new LinkedHashMap<>();
+        rollerShadeRepo.findAll().forEach(system -> systems.put(system.getName(), system));
+        Map<String, RollerFabric> fabrics = new LinkedHashMap<>();
+        rollerFabricRepo.findAll().forEach(fabric -> fabrics.put(fabric.getName(), fabric));
+        List<RollerTube> tubes = rollerTubeRepo.findAll();
+        BottomRail bottomRail = shadeCalculator.getBottomRail();
+
+        Map<String, Callable<Response>> tasks = new LinkedHashMap<>();
+        int notFound = 0;
+        for (SystemLimitRequest pair : batch.getPairs()) {
+            List<RollerShadeSystem> matchedSystems = match(systems, pair.getSystemName());
+            List<RollerFabric> matchedFabrics = match(fabrics, pair.getFabricName());
+            if (matchedSystems.isEmpty() || matchedFabrics.isEmpty()) {
+                notFound++;
+                consumer.accept(Response.builder()
+                        .errors(List.of("Fabric or system not found: " + pair.getSystemName() + ", " + pair.getFabricName()))
+                        .status("error")
+                        .build());
+                continue;
+            }
+            for (RollerShadeSystem system : matchedSystems) {
+                for (RollerFabric fabric : matchedFabrics) {
+                    tasks.putIfAbsent(system.getId() + "/" + fabric.getId(), () -> Response.builder()
+                            .data(SystemLimitResponse.getSystemLimitResponse(system, fabric,
+                                    shadeCalculator.getAllSystemLimits(unit, system, fabric, tubes, bottomRail)))
+                            .build());
+                }
+            }
+        }
+
+        planned.accept(notFound + tasks.size());
+        CompletionService<Response> completion = new ExecutorCompletionService<>(calculatorPool);
+        List<Future<Response>> futures = new ArrayList<>(tasks.size());
+        tasks.values().forEach(task -> futures.add(completion.submit(task)));
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    consumer.accept(completion.take().get());
+                } catch (ExecutionException e) {
+                    log.error("Failed to calculate system limit", e.getCause());
+                    consumer.accept(Response.builder()
+                            .errors(List.of("Failed to calculate system limit"))
+                            .status("error")
+                            .build());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
     /**
      * This method returns the deflection of a shade.
      * @param template The schema with the necessary data to calculate the deflection
      * @return Response object with the deflection of the shade
      */
     public Response getTubeDeflection(ShadeTemplate template) {
-        RollerFabric fabric = rollerFabricRepo.findByName(template.getFabricName()).orElse(null);
-        RollerTube tube = rollerTubeRepo.findByName(template.getTubeName()).orElse(null);
+        RollerFabric fabric = catalogueCache.findFabric(template.getFabricName()).orElse(null);
+        RollerTube tube = catalogueCache.findTube(template.getTubeName()).orElse(null);
 
         if (fabric == null || tube == null) {
             return Response.builder()
@@ -97,7 +198,197 @@ public class CalculatorService extends MainService{
         Measurement deflection = shadeCalculator.getTubeDeflection(fabric, tube, template.getWidth(), template.getDrop());
 
         return Response.builder()
-                .data(mapToJson(deflection))
+                .data(deflection)
+                .build();
+    }
+
+    /**
+     * This method validates every shade of an order file against the roll up and deflection limits.
+     * The file is read one line at a time, and each result is handed to the consumer
+     * before the next line is read, so the results are in the same order as the file.
+     * @param reader The order file
+     * @param consumer Receives one Response per shade, with the error if the line could not be validated
+     * @throws IOException if the file cannot be read
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void validateOrder(OrderLineReader reader, Consumer<Response> consumer) throws IOException {
+        while (true) {
+            OrderLine line;
+            try {
+                line = reader.read();
+            } catch (IllegalStateException e) {
+                consumer.accept(orderLineError(reader.getLineNumber(), e.getMessage()));
+                return;
+            } catch (IllegalArgumentException e) {
+                consumer.accept(orderLineError(reader.getLineNumber(), "Invalid line: " + e.getMessage()));
+                continue;
+            }
+            if (line == null) {
+                return;
+            }
+            consumer.accept(validateOrderLine(line));
+        }
+    }
+
+    /**
+     * @param line One shade of an order file
+     * @return Response object with the validation of the shade
+     */
+    private Response validateOrderLine(OrderLine line) {
+        RollerFabric fabric = catalogueCache.findFabric(line.getFabricName()).orElse(null);
+        RollerTube tube = catalogueCache.findTube(line.getTubeName()).orElse(null);
+        RollerShadeSystem system = catalogueCache.findSystem(line.getSystemName()).orElse(null);
+        if (fabric == null || tube == null || system == null) {
+            return orderLineError(line.getLine(), "Fabric, tube or system not found");
+        }
+        if (line.getWidth() == null || line.getDrop() == null) {
+            return orderLineError(line.getLine(), "Width or drop missing");
+        }
+
+        Measurement rollUp = shadeCalculator.getRollUp(line.getDrop(), tube.getOuterDiameter(), fabric.getThickness());
+        Measurement maxRollUp = measurementConverter.convert(system.getMaxDiameter(), line.getDrop().getUnit());
+        Measurement deflection = shadeCalculator.getTubeDeflection(fabric, tube, line.getWidth(), line.getDrop());
+        Measurement maxDeflection = shadeCalculator.getMaxDeflection();
+        if (rollUp.getValue() == -1 || maxRollUp.getValue() == -1 || deflection.getValue() == -1) {
+            return orderLineError(line.getLine(), "Bottom rail not found, or a unit could not be converted");
+        }
+
+        List<String> problems = new ArrayList<>(2);
+        if (rollUp.getValue() > maxRollUp.getValue()) {
+            problems.add("Roll up exceeds the maximum diameter of the system");
+        }
+        if (deflection.getValue() > maxDeflection.getValue()) {
+            problems.add("Tube deflection exceeds the maximum deflection");
+        }
+        return Response.builder()
+                .data(OrderLineResult.builder()
+                        .line(line.getLine())
+                        .valid(problems.isEmpty())
+                        .rollUp(rollUp)
+                        .maxRollUp(maxRollUp)
+                        .deflection(deflection)
+                        .maxDeflection(maxDeflection)
+                        .problems(problems)
+                        .build())
+                .build();
+    }
+
+    private static Response orderLineError(long line, String error) {
+        return Response.builder()
+                .data(OrderLineResult.builder().line(line).build())
+                .errors(List.of(error))
+                .status("error")
+                .build();
+    }
+
+    /**
+     * This method finds the least rigid tube that carries a shade within the maximum deflection.
+     * The required rigidity is calculated once and looked up in the TubeIndex,
+     * instead of calculating the limits of every tube.
+     * @param recommendation The schema with the fabric, width and drop of the shade
+     * @return Response object with the recommended tube and its deflection
+     */
+    public Response getTubeRecommendation(TubeRecommendationRequest recommendation) {
+        RollerFabric fabric = catalogueCache.findFabric(recommendation.getFabricName()).orElse(null);
+        if (fabric == null || recommendation.getWidth() == null || recommendation.getDrop() == null) {
+            return Response.builder()
+                    .errors(List.of("Fabric not found, or width or drop missing"))
+                    .build();
+        }
+
+        double required = shadeCalculator.getRequiredRigidity(fabric, recommendation.getWidth(), recommendation.getDrop());
+        RollerTube tube = tubeIndex.findLeastRigid(required).orElse(null);
+        if (tube == null) {
+            return Response.builder()
+                    .errors(List.of(Double.isNaN(required)
+                            ? "Bottom rail not found, or a unit could not be converted"
+                            : "No tube can carry this shade"))
+                    .build();
+        }
+
+        return Response.builder()
+                .data(TubeRecommendationResponse.builder()
+                        .tube(RollerTubeResponse.getRollerTubeResponse(tube))
+                        .deflection(shadeCalculator.getTubeDeflection(
+                                fabric, tube, recommendation.getWidth(), recommendation.getDrop()))
+                        .maxDeflection(shadeCalculator.getMaxDeflection())
+                        .build())
+                .build();
+    }
+
+    /**
+     * This method returns the deflection of a shade for every width and drop of a grid.
+     * @param sweep The schema with the fabric, tube and the width and drop ranges
+     * @return Response object with the deflection grid, in mm
+     */
+    public Response getDeflectionSweep(DeflectionSweepRequest sweep) {
+        double[] widths = steps(sweep.getWidth());
+        double[] drops = steps(sweep.getDrop());
+        if (widths == null || drops == null || (long) widths.length * drops.length > MAX_SWEEP_POINTS) {
+            return Response.builder()
+                    .errors(List.of("Invalid width or drop range, at most " + MAX_SWEEP_POINTS + " points are allowed"))
+                    .build();
+        }
+
+        RollerFabric fabric = catalogueCache.findFabric(sweep.getFabricName()).orElse(null);
+        RollerTube tube = catalogueCache.findTube(sweep.getTubeName()).orElse(null);
+        if (fabric == null || tube == null) {
+            return Response.builder()
+                    .errors(List.of("Fabric, tube or system not found"))
+                    .build();
+        }
+
+        double[][] deflections = shadeCalculator.getDeflectionGrid(
+                fabric, tube, widths, sweep.getWidth().getUnit(), drops, sweep.getDrop().getUnit());
+        if (deflections == null) {
+            return Response.builder()
+                    .errors(List.of("Bottom rail not found, or a unit could not be converted"))
+                    .build();
+        }
+
+        return Response.builder()
+                .data(DeflectionSweepResponse.builder()
+                        .fabricName(fabric.getName())
+                        .tubeName(tube.getName())
+                        .widths(widths)
+                        .drops(drops)
+                        .unit("mm")
+                        .deflections(deflections)
+                        .maxDeflection(shadeCalculator.getMaxDeflection())
+                        .build())
                 .build();
     }
+
+    /**
+     * @param range The range to expand
+     * @return Every value of the range, or null if the range is missing, empty or too large
+     */
+    private static double[] steps(SweepRange range) {
+        if (range == null || !(range.getStep() > 0) || !(range.getTo() >= range.getFrom())) {
+            return null;
+        }
+        // tolerate the rounding of the step, so the end of the range is included
+        double count = Math.floor((range.getTo() - range.getFrom()) / range.getStep() + 1e-9) + 1;
+        if (count > MAX_SWEEP_POINTS) {
+            return null;
+        }
+        double[] values = new double[(int) count];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = range.getFrom() + i * range.getStep();
+        }
+        return values;
+    }
+
+    /**
+     * @param byName The entities indexed by name
+     * @param name The name to match, or "*" to match every entity
+     * @return The matching entities, empty if none match
+     */
+    private static <T> List<T> match(Map<String, T> byName, String name) {
+        if (SystemLimitBatchRequest.WILDCARD.equals(name)) {
+            return new ArrayList<>(byName.values());
+        }
+        T found = byName.get(name);
+        return found == null ? List.of() : List.of(found);
+    }
 }
@@ -0,0 +1,189 @@
+package com.vertilux.shadeCalculator.services;
+
+import com.vertilux.shadeCalculator.schemas.CatalogueChange;
+import com.vertilux.shadeCalculator.schemas.CatalogueChange.Action;
+import com.vertilux.shadeCalculator.utils.CatalogueVersion;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CatalogueChangeService
+ * <p>
+ *     This class streams the committed catalogue changes to the subscribers of GET /catalogue/changes
+ *     as Server-Sent Events, so clients and other nodes can evict what changed instead of polling get-all.
+ *     Every event is named after its action, saved, deleted or reloaded, carries the CatalogueChange as JSON,
+ *     and has the catalogue version, tagged with the start of the process, as its id.
+ * </p>
+ * <p>
+ *     The latest changes are kept, so a client reconnecting with the Last-Event-ID header receives the ones it missed.
+ *     When they are no longer kept, or the id comes from before a restart, it receives a reloaded event instead,
+ *     after which it should drop everything it cached from the catalogue, as after the reload of an embedded node.
+ * </p>
+ * <p>
+ *     The events are sent from a single thread, in the order they were committed, so a slow subscriber never delays a write.
+ *     The same thread sends a comment every heartbeat, which keeps idle connections open through proxies
+ *     and finds the subscribers that disconnected.
+ * </p>
+ */
+@Slf4j
+@Service
+public class CatalogueChangeService {
+    private final CatalogueVersion catalogueVersion;
+    private final int history;
+    private final Duration timeout;
+    private final Set<SseEmitter> subscribers = ConcurrentHashMap.newKeySet();
+    private final Deque<CatalogueChange> recent = new ArrayDeque<>();
+    private final ScheduledExecutorService sender = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalogue-changes");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CatalogueChangeService(CatalogueVersion catalogueVersion,
+                                  MeterRegistry registry,
+                                  @Value("${catalogue.changes.history:1000}") int history,
+                                  @Value("${catalogue.changes.timeout:30m}") Duration timeout,
+                                  @Value("${catalogue.changes.heartbeat:30s}") Duration heartbeat) {
+        this.catalogueVersion = catalogueVersion;
+        this.history = history;
+        this.timeout = timeout;
+        Gauge.builder("catalogue.changes.subscribers", subscribers, Set::size)
+                .description("Open subscriptions to the catalogue change feed")
+                .register(registry);
+        sender.scheduleWithFixedDelay(this::heartbeat,
+                heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        sender.shutdownNow();
+        subscribers.forEach(SseEmitter::complete);
+    }
+
+    /**
+     * @param lastEventId the Last-Event-ID of a reconnecting client, null for a new one
+     * @return the emitter of the new subscription, which first receives the changes missed since lastEventId
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(e -> subscribers.remove(emitter));
+        try {
+            // on the sender thread, so no change is sent between the missed ones and the subscription
+            sender.execute(() -> {
+                if (catchUp(emitter, lastEventId)) {
+                    subscribers.add(emitter);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    /**
+     * Sends a change to the subscribers once the write is committed,
+     * or right away when it was made outside a transaction.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(CatalogueChange change) {
+        try {
+            sender.execute(() -> {
+                recent.addLast(change);
+                while (recent.size() > history) {
+                    recent.removeFirst();
+                }
+                SseEmitter.SseEventBuilder event = event(change);
+                for (SseEmitter subscriber : subscribers) {
+                    send(subscriber, event);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Catalogue change {} not sent, the feed is stopped", change.getVersion());
+        }
+    }
+
+    /**
+     * @return false if the emitter failed and must not be subscribed
+     */
+    private boolean catchUp(SseEmitter emitter, String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return true;
+        }
+        List<CatalogueChange> missed = missed(lastEventId.trim());
+        if (missed == null) {
+            missed = List.of(CatalogueChange.builder().action(Action.RELOADED).version(catalogueVersion.get()).build());
+        }
+        for (CatalogueChange change : missed) {
+            if (!send(emitter, event(change))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the kept changes after the event id, null if some of them are no longer kept or the id is unknown
+     */
+    private List<CatalogueChange> missed(String lastEventId) {
+        long last = catalogueVersion.parseTag(lastEventId);
+        long current = catalogueVersion.get();
+        if (last < 0 || last > current) {
+            return null;
+        }
+        List<CatalogueChange> missed = new ArrayList<>();
+        for (CatalogueChange change : recent) {
+            if (change.getVersion() > last) {
+                missed.add(change);
+            }
+        }
+        // the oldest kept change may follow changes already dropped from the history
+        boolean dropped = recent.size() >= history && missed.size() == recent.size();
+        return dropped ? null : missed;
+    }
+
+    private void heartbeat() {
+        for (SseEmitter subscriber : subscribers) {
+            send(subscriber, SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+    private SseEmitter.SseEventBuilder event(CatalogueChange change) {
+        return SseEmitter.event()
+                .name(change.getAction().name().toLowerCase())
+                .id(catalogueVersion.getTag(change.getVersion()))
+                .data(change);
+    }
+
+    private boolean send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // the client disconnected, or the emitter already completed
+            subscribers.remove(emitter);
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.vertilux.shadeCalculator.services;
+
+import com.vertilux.shadeCalculator.models.Response;
+import com.vertilux.shadeCalculator.repositories.KeysetQuery;
+import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * CataloguePageService
+ * This class returns the catalogue entities one page at a time, with only the fields requested.
+ * @see KeysetQuery
+ */
+@AllArgsConstructor
+@Service
+@Profile("!embedded")
+public class CataloguePageService {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private final KeysetQuery keysetQuery;
+
+    /**
+     * @param entity the entity to page through
+     * @param size the number of entities per page, at most MAX_PAGE_SIZE
+     * @param cursor the next cursor of the previous page, null for the first page
+     * @param fields the fields to return, empty for every field
+     * @return A Response object with the page, or the error if a field or the cursor is invalid
+     */
+    public Response getPage(Class<?> entity, int size, String cursor, List<String> fields) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            return Response.builder()
+                    .errors(List.of("The page size must be between 1 and " + MAX_PAGE_SIZE))
+                    .status("error")
+                    .build();
+        }
+        try {
+            return Response.builder()
+                    .data(keysetQuery.page(entity, size, cursor, fields))
+                    .build();
+        } catch (IllegalArgumentException | InvalidDataAccessApiUsageException e) {
+            // the repository translates the IllegalArgumentException of an invalid field or cursor
+            return Response.builder()
+                    .errors(List.of(e.getMessage()))
+                    .status("error")
+                    .build();
+        }
+    }
+}
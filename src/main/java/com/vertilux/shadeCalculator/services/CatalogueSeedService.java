@@ -0,0 +1,221 @@
+package com.vertilux.shadeCalculator.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vertilux.shadeCalculator.models.CatalogueSeedMarker;
+import com.vertilux.shadeCalculator.models.measurements.MeasurementUnit;
+import com.vertilux.shadeCalculator.models.measurements.UnitConversion;
+import com.vertilux.shadeCalculator.models.rollerShade.BottomRail;
+import com.vertilux.shadeCalculator.models.rollerShade.RollerFabric;
+import com.vertilux.shadeCalculator.models.rollerShade.RollerShadeSystem;
+import com.vertilux.shadeCalculator.models.rollerShade.RollerTube;
+import com.vertilux.shadeCalculator.repositories.*;
+import com.vertilux.shadeCalculator.schemas.BottomRailCreation;
+import com.vertilux.shadeCalculator.schemas.CatalogueSeed;
+import com.vertilux.shadeCalculator.schemas.ConversionCreation;
+import com.vertilux.shadeCalculator.schemas.RollerFabricCreation;
+import com.vertilux.shadeCalculator.schemas.RollerShadeSystemCreation;
+import com.vertilux.shadeCalculator.schemas.RollerTubeCreation;
+import com.vertilux.shadeCalculator.utils.CatalogueChangePublisher;
+import com.vertilux.shadeCalculator.utils.CatalogueNormaliser;
+import com.vertilux.shadeCalculator.utils.ConversionGraph;
+import com.vertilux.shadeCalculator.utils.MeasurementConverter;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Catalogue Seed Service
+ * This class writes the catalogue seed file to the database on startup.
+ * <p>
+ *     Every entity of the seed that is not in the database yet, by name, or by units for conversions,
+ *     is inserted with batched saveAll calls in a single transaction.
+ *     The version of the seed is then recorded in a CatalogueSeedMarker,
+ *     and the seed is skipped entirely while the database holds the same version.
+ * </p>
+ * <p>
+ *     The components are normalised with a conversion graph built inside the transaction,
+ *     which the MeasurementConverter only starts using, and the change is only published, once it committed,
+ *     so a rolled back seed leaves both untouched.
+ * </p>
+ */
+@Slf4j
+@AllArgsConstructor
+@Service
+@Profile("!embedded")
+public class CatalogueSeedService {
+    private final UnitRepo unitRepo;
+    private final ConversionRepo conversionRepo;
+    private final BottomRailRepo bottomRailRepo;
+    private final RollerFabricRepo rollerFabricRepo;
+    private final RollerShadeRepo rollerShadeRepo;
+    private final RollerTubeRepo rollerTubeRepo;
+    private final CatalogueSeedMarkerRepo markerRepo;
+    private final MeasurementConverter measurementConverter;
+    private final CatalogueNormaliser catalogueNormaliser;
+    private final CatalogueChangePublisher catalogueChangePublisher;
+    private final TransactionOperations transactionOperations;
+    private final ObjectMapper mapper;
+
+    /**
+     * @param in the seed file
+     * @return the parsed seed
+     * @throws IOException if the file cannot be read or parsed
+     */
+    public CatalogueSeed read(InputStream in) throws IOException {
+        return mapper.readValue(in, CatalogueSeed.class);
+    }
+
+    /**
+     * This method writes every entity of the seed that is missing from the database.
+     * @param seed the catalogue seed
+     * @return true if the seed was written, false if the database already holds this version
+     */
+    public boolean seed(CatalogueSeed seed) {
+        ConversionGraph seeded = transactionOperations.execute(status -> {
+            CatalogueSeedMarker marker = markerRepo.findById(CatalogueSeedMarker.ID).orElse(null);
+            if (marker != null && marker.getVersion().equals(seed.getVersion())) {
+                return null;
+            }
+            writeConversions(seed.getConversions());
+            // the components are normalised with the conversions just written
+            ConversionGraph graph = measurementConverter.build(unitRepo.findAll(), conversionRepo.findAll());
+            insertMissing(bottomRailRepo, BottomRail::getName, seed.getBottomRails(),
+                    rail -> catalogueNormaliser.normalise(toBottomRail(rail), graph));
+            insertMissing(rollerFabricRepo, RollerFabric::getName, seed.getFabrics(),
+                    fabric -> catalogueNormaliser.normalise(toFabric(fabric), graph));
+            insertMissing(rollerShadeRepo, RollerShadeSystem::getName, seed.getSystems(),
+                    system -> catalogueNormaliser.normalise(toSystem(system), graph));
+            insertMissing(rollerTubeRepo, RollerTube::getName, seed.getTubes(),
+                    tube -> catalogueNormaliser.normalise(toTube(tube), graph));
+            markerRepo.save(CatalogueSeedMarker.builder()
+                    .id(CatalogueSeedMarker.ID)
+                    .version(seed.getVersion())
+                    .seededAt(Instant.now())
+                    .build());
+            return graph;
+        });
+
+        if (seeded != null) {
+            measurementConverter.install(seeded);
+            catalogueChangePublisher.reloaded();
+            log.info("Seeded catalogue version {}", seed.getVersion());
+            return true;
+        }
+        log.info("Catalogue seed version {} is already in the database", seed.getVersion());
+        return false;
+    }
+
+    /**
+     * @param rail a bottom rail of the seed
+     * @return a new bottom rail, without an id or SI values
+     */
+    public static BottomRail toBottomRail(BottomRailCreation rail) {
+        return BottomRail.builder()
+                .name(rail.getName())
+                .weight(rail.getWeight())
+                .build();
+    }
+
+    /**
+     * @param fabric a fabric of the seed
+     * @return a new fabric, without an id or SI values
+     */
+    public static RollerFabric toFabric(RollerFabricCreation fabric) {
+        return RollerFabric.builder()
+                .name(fabric.getName())
+                .thickness(fabric.getThickness())
+                .weight(fabric.getWeight())
+                .build();
+    }
+
+    /**
+     * @param system a system of the seed
+     * @return a new system, without an id or SI values
+     */
+    public static RollerShadeSystem toSystem(RollerShadeSystemCreation system) {
+        return RollerShadeSystem.builder()
+                .name(system.getName())
+                .maxDiameter(system.getMaxDiameter())
+                .build();
+    }
+
+    /**
+     * @param tube a tube of the seed
+     * @return a new tube, without an id or SI values
+     */
+    public static RollerTube toTube(RollerTubeCreation tube) {
+        return RollerTube.builder()
+                .name(tube.getName())
+                .outerDiameter(tube.getOuterDiameter())
+                .innerDiameter(tube.getInnerDiameter())
+                .build();
+    }
+
+    /**
+     * Inserts the units and conversions that are missing, reusing the units already in the database.
+     */
+    private void writeConversions(List<ConversionCreation> conversions) {
+        Map<String, MeasurementUnit> units = new HashMap<>();
+        unitRepo.findAll().forEach(unit -> units.put(unit.getUnit(), unit));
+        List<MeasurementUnit> newUnits = new ArrayList<>();
+        for (ConversionCreation conversion : conversions) {
+            for (String unit : List.of(conversion.getFrom(), conversion.getTo())) {
+                units.computeIfAbsent(unit, symbol -> {
+                    MeasurementUnit created = MeasurementUnit.builder().unit(symbol).build();
+                    newUnits.add(created);
+                    return created;
+                });
+            }
+        }
+        unitRepo.saveAll(newUnits);
+
+        Set<String> existing = new HashSet<>();
+        conversionRepo.findAll().forEach(conversion ->
+                existing.add(conversion.getFrom().getUnit() + '\u0000' + conversion.getTo().getUnit()));
+        List<UnitConversion> newConversions = new ArrayList<>();
+        for (ConversionCreation conversion : conversions) {
+            if (existing.add(conversion.getFrom() + '\u0000' + conversion.getTo())) {
+                newConversions.add(UnitConversion.builder()
+                        .from(units.get(conversion.getFrom()))
+                        .to(units.get(conversion.getTo()))
+                        .factor(conversion.getFactor())
+                        .build());
+            }
+        }
+        conversionRepo.saveAll(newConversions);
+    }
+
+    /**
+     * @param repo the repository of the entity
+     * @param name the name of an entity
+     * @param seeds the entities of the seed
+     * @param convert converts a seed into a new entity
+     */
+    private static <S, E> void insertMissing(JpaRepository<E, String> repo,
+                                                Function<E, String> name, List<S> seeds, Function<S, E> convert) {
+        Set<String> existing = new HashSet<>();
+        repo.findAll().forEach(entity -> existing.add(name.apply(entity)));
+        List<E> missing = new ArrayList<>();
+        for (S seed : seeds) {
+            E entity = convert.apply(seed);
+            if (existing.add(name.apply(entity))) {
+                missing.add(entity);
+            }
+        }
+        repo.saveAll(missing);
+    }
+}
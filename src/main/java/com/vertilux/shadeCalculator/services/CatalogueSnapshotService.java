@@ -0,0 +1,42 @@
+package com.vertilux.shadeCalculator.services;
+
+import com.vertilux.shadeCalculator.repositories.*;
+import com.vertilux.shadeCalculator.utils.CatalogueVersion;
+import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+
+/**
+ * CatalogueSnapshotService
+ * This class exports the catalogue of the database as a binary snapshot, for the nodes running the embedded profile.
+ * @see CatalogueSnapshotFile
+ */
+@AllArgsConstructor
+@Service
+@Profile("!embedded")
+public class CatalogueSnapshotService {
+    private final UnitRepo unitRepo;
+    private final ConversionRepo conversionRepo;
+    private final BottomRailRepo bottomRailRepo;
+    private final RollerFabricRepo rollerFabricRepo;
+    private final RollerShadeRepo rollerShadeRepo;
+    private final RollerTubeRepo rollerTubeRepo;
+    private final CatalogueVersion catalogueVersion;
+
+    /**
+     * This method writes the whole catalogue, read in one transaction, as a snapshot.
+     * The snapshot version is the time of the last change to the catalogue.
+     * @param out the stream to write to, which is not closed
+     */
+    @Transactional(readOnly = true)
+    public void export(OutputStream out) throws IOException {
+        CatalogueSnapshotFile.write(out, Instant.ofEpochMilli(catalogueVersion.getLastModified()).toString(),
+                unitRepo.findAll(), conversionRepo.findAll(), bottomRailRepo.findAll(),
+                rollerFabricRepo.findAll(), rollerShadeRepo.findAll(), rollerTubeRepo.findAll());
+    }
+}
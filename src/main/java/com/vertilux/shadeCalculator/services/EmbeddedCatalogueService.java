@@ -0,0 +1,274 @@
+package com.vertilux.shadeCalculator.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vertilux.shadeCalculator.models.measurements.MeasurementUnit;
+import com.vertilux.shadeCalculator.models.measurements.UnitConversion;
+import com.vertilux.shadeCalculator.models.rollerShade.BottomRail;
+import com.vertilux.shadeCalculator.models.rollerShade.RollerFabric;
+import com.vertilux.shadeCalculator.models.rollerShade.RollerShadeSystem;
+import com.vertilux.shadeCalculator.models.rollerShade.RollerTube;
+import com.vertilux.shadeCalculator.repositories.CatalogueSnapshotFile;
+import com.vertilux.shadeCalculator.repositories.EmbeddedCatalogue;
+import com.vertilux.shadeCalculator.schemas.CatalogueSeed;
+import com.vertilux.shadeCalculator.schemas.ConversionCreation;
+import com.vertilux.shadeCalculator.utils.CatalogueCache;
+import com.vertilux.shadeCalculator.utils.CatalogueChangePublisher;
+import com.vertilux.shadeCalculator.utils.CatalogueNormaliser;
+import com.vertilux.shadeCalculator.utils.ConversionGraph;
+import com.vertilux.shadeCalculator.utils.MeasurementConverter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Embedded Catalogue Service
+ * This class loads the catalogue of the embedded profile from a file, and loads it again whenever the file changes.
+ * <p>
+ *     The file has the format of the catalogue seed, see resources/catalogue/seed.json,
+ *     or is a binary CatalogueSnapshotFile exported from a node with a database, which is mapped instead of parsed.
+ *     Its components are normalised with its own conversions, then published as one new EmbeddedCatalogue snapshot,
+ *     after which the catalogue caches are reloaded and the change published, which bumps the catalogue version.
+ *     The ids of a JSON catalogue are derived from the names, so every node loading the same file returns the same ids.
+ * </p>
+ * <p>
+ *     The directory of the file is watched with a WatchService, which also sees files replaced by a rename
+ *     or a symbolic link swap, as when a mounted config map is updated.
+ *     A file that cannot be read or parsed is logged and the current catalogue is kept:
+ *     the conversions and the components are only published once all of them were built,
+ *     so a failed load leaves nothing of the file in use, and the file that was replaced can be restored.
+ * </p>
+ */
+@Slf4j
+@Service
+@Profile("embedded")
+public class EmbeddedCatalogueService {
+    // lets a file written in several steps settle before it is read
+    private static final long SETTLE_MILLIS = 200;
+
+    private final EmbeddedCatalogue embeddedCatalogue;
+    private final MeasurementConverter measurementConverter;
+    private final CatalogueNormaliser catalogueNormaliser;
+    private final CatalogueCache catalogueCache;
+    private final CatalogueChangePublisher catalogueChangePublisher;
+    private final ObjectMapper mapper;
+    private final Path file;
+
+    private byte[] loaded;
+    private CatalogueSnapshotFile loadedSnapshot;
+    private WatchService watchService;
+
+    public EmbeddedCatalogueService(EmbeddedCatalogue embeddedCatalogue,
+                                    MeasurementConverter measurementConverter,
+                                    CatalogueNormaliser catalogueNormaliser,
+                                    CatalogueCache catalogueCache,
+                                    CatalogueChangePublisher catalogueChangePublisher,
+                                    ObjectMapper mapper,
+                                    @Value("${catalogue.embedded.file}") String file) {
+        this.embeddedCatalogue = embeddedCatalogue;
+        this.measurementConverter = measurementConverter;
+        this.catalogueNormaliser = catalogueNormaliser;
+        this.catalogueCache = catalogueCache;
+        this.catalogueChangePublisher = catalogueChangePublisher;
+        this.mapper = mapper;
+        this.file = Path.of(file).toAbsolutePath();
+    }
+
+    /**
+     * Loads the catalogue, failing the startup if the file cannot be loaded, then starts watching the file.
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        load();
+        watchService = file.getFileSystem().newWatchService();
+        file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        Thread watcher = new Thread(this::watch, "embedded-catalogue-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    /**
+     * This method loads the file and replaces the catalogue with it, unless its content did not change.
+     * @return true if the catalogue was replaced
+     * @throws IOException if the file cannot be read or parsed
+     */
+    public synchronized boolean load() throws IOException {
+        if (CatalogueSnapshotFile.isSnapshot(file)) {
+            return loadSnapshot();
+        }
+        byte[] content = Files.readAllBytes(file);
+        if (Arrays.equals(content, loaded)) {
+            return false;
+        }
+        CatalogueSeed seed = mapper.readValue(content, CatalogueSeed.class);
+
+        Map<String, MeasurementUnit> units = new LinkedHashMap<>();
+        List<UnitConversion> conversions = new ArrayList<>();
+        Set<String> pairs = new HashSet<>();
+        for (ConversionCreation conversion : section("conversion", seed.getConversions())) {
+            if (pairs.add(conversion.getFrom() + '\u0000' + conversion.getTo())) {
+                conversions.add(UnitConversion.builder()
+                        .id(id("conversion", conversion.getFrom() + '\u0000' + conversion.getTo()))
+                        .from(unit(units, conversion.getFrom()))
+                        .to(unit(units, conversion.getTo()))
+                        .factor(conversion.getFactor())
+                        .build());
+            }
+        }
+        // the components are normalised with the conversions of the file,
+        // which are only used once the whole catalogue is built
+        List<MeasurementUnit> unitList = List.copyOf(units.values());
+        ConversionGraph graph = measurementConverter.build(unitList, conversions);
+
+        List<BottomRail> bottomRails = entities("bottomrail", seed.getBottomRails(),
+                rail -> catalogueNormaliser.normalise(CatalogueSeedService.toBottomRail(rail), graph),
+                BottomRail::getName, BottomRail::setId);
+        List<RollerFabric> fabrics = entities("fabric", seed.getFabrics(),
+                fabric -> catalogueNormaliser.normalise(CatalogueSeedService.toFabric(fabric), graph),
+                RollerFabric::getName, RollerFabric::setId);
+        List<RollerShadeSystem> systems = entities("system", seed.getSystems(),
+                system -> catalogueNormaliser.normalise(CatalogueSeedService.toSystem(system), graph),
+                RollerShadeSystem::getName, RollerShadeSystem::setId);
+        List<RollerTube> tubes = entities("tube", seed.getTubes(),
+                tube -> catalogueNormaliser.normalise(CatalogueSeedService.toTube(tube), graph),
+                RollerTube::getName, RollerTube::setId);
+
+        measurementConverter.install(graph);
+        embeddedCatalogue.replace(seed.getVersion(), Map.of(
+                MeasurementUnit.class, unitList,
+                UnitConversion.class, conversions,
+                BottomRail.class, bottomRails,
+                RollerFabric.class, fabrics,
+                RollerShadeSystem.class, systems,
+                RollerTube.class, tubes
+        ));
+        loaded = content;
+        loadedSnapshot = null;
+        catalogueCache.reload();
+        catalogueChangePublisher.reloaded();
+        log.info("Loaded embedded catalogue version {} from {}: {} systems, {} fabrics, {} tubes, {} bottom rails, {} conversions",
+                seed.getVersion(), file, systems.size(), fabrics.size(), tubes.size(), bottomRails.size(), conversions.size());
+        return true;
+    }
+
+    /**
+     * This method maps a binary snapshot and serves the catalogue from it,
+     * its components are already normalised, and only the rows read are decoded.
+     */
+    private boolean loadSnapshot() throws IOException {
+        CatalogueSnapshotFile snapshot = CatalogueSnapshotFile.map(file);
+        if (snapshot.contentEquals(loadedSnapshot)) {
+            return false;
+        }
+        ConversionGraph graph = measurementConverter.build(
+                snapshot.getTable(MeasurementUnit.class), snapshot.getTable(UnitConversion.class));
+        measurementConverter.install(graph);
+        embeddedCatalogue.replace(snapshot.getVersion(), snapshot.getTables());
+        loadedSnapshot = snapshot;
+        loaded = null;
+        catalogueCache.reload();
+        catalogueChangePublisher.reloaded();
+        log.info("Mapped catalogue snapshot version {} from {}: {} systems, {} fabrics, {} tubes, {} bottom rails, {} conversions",
+                snapshot.getVersion(), file, snapshot.getTable(RollerShadeSystem.class).size(),
+                snapshot.getTable(RollerFabric.class).size(), snapshot.getTable(RollerTube.class).size(),
+                snapshot.getTable(BottomRail.class).size(), snapshot.getTable(UnitConversion.class).size());
+        return true;
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                key.pollEvents();
+                key.reset();
+                Thread.sleep(SETTLE_MILLIS);
+                // the events of the same write are covered by this load
+                while ((key = watchService.poll()) != null) {
+                    key.pollEvents();
+                    key.reset();
+                }
+                if (Files.exists(file)) {
+                    reload();
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            log.debug("Stopped watching {}", file);
+        }
+    }
+
+    private void reload() {
+        try {
+            load();
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to load the embedded catalogue from {}, keeping version {}",
+                    file, embeddedCatalogue.getVersion(), e);
+        }
+    }
+
+    private static MeasurementUnit unit(Map<String, MeasurementUnit> units, String symbol) {
+        return units.computeIfAbsent(symbol, unit -> MeasurementUnit.builder()
+                .id(id("unit", unit))
+                .unit(unit)
+                .build());
+    }
+
+    /**
+     * @return the entities of the seeds, skipping the names already taken, with an id derived from their name
+     */
+    private static <S, E> List<E> entities(String type, List<S> seeds, Function<S, E> create,
+                                           Function<E, String> name, BiConsumer<E, String> setId) {
+        Set<String> names = new HashSet<>();
+        List<E> entities = new ArrayList<>();
+        for (S seed : section(type, seeds)) {
+            E entity = create.apply(seed);
+            if (names.add(name.apply(entity))) {
+                setId.accept(entity, id(type, name.apply(entity)));
+                entities.add(entity);
+            }
+        }
+        return entities;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the file has no list of the type, as for "tubes": null
+     */
+    private static <S> List<S> section(String type, List<S> seeds) {
+        if (seeds == null) {
+            throw new IllegalArgumentException("The catalogue has no " + type + " list");
+        }
+        return seeds;
+    }
+
+    private static String id(String type, String name) {
+        return UUID.nameUUIDFromBytes((type + '/' + name).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+}
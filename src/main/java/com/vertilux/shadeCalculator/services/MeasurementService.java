@@ -4,16 +4,30 @@ import com.vertilux.shadeCalculator.models.Response;
 import com.vertilux.shadeCalculator.models.measurements.Measurement;
 import com.vertilux.shadeCalculator.models.measurements.MeasurementUnit;
 import com.vertilux.shadeCalculator.models.measurements.UnitConversion;
+import com.vertilux.shadeCalculator.repositories.BottomRailRepo;
 import com.vertilux.shadeCalculator.repositories.ConversionRepo;
+import com.vertilux.shadeCalculator.repositories.RollerFabricRepo;
+import com.vertilux.shadeCalculator.repositories.RollerShadeRepo;
+import com.vertilux.shadeCalculator.repositories.RollerTubeRepo;
 import com.vertilux.shadeCalculator.repositories.UnitRepo;
+import com.vertilux.shadeCalculator.schemas.CatalogueChange;
 import com.vertilux.shadeCalculator.schemas.ConversionCreation;
+import com.vertilux.shadeCalculator.utils.CatalogueCache;
+import com.vertilux.shadeCalculator.utils.CatalogueNormaliser;
 import com.vertilux.shadeCalculator.utils.MeasurementConverter;
+import com.vertilux.shadeCalculator.utils.CatalogueChangePublisher;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 
 /**
  * Measurement Service
@@ -26,21 +40,29 @@ import java.util.Optional;
 @Slf4j
 @AllArgsConstructor
 @Service
-public class MeasurementService extends MainService{
+public class MeasurementService {
     private final UnitRepo measurementRepo;
     private final ConversionRepo conversionRepo;
     private final MeasurementConverter measurementConverter;
+    private final CatalogueChangePublisher catalogueChangePublisher;
+    private final CatalogueNormaliser catalogueNormaliser;
+    private final CatalogueCache catalogueCache;
+    private final RollerTubeRepo rollerTubeRepo;
+    private final RollerFabricRepo rollerFabricRepo;
+    private final BottomRailRepo bottomRailRepo;
+    private final RollerShadeRepo rollerShadeRepo;
 
 
     /**
      * This method returns all the measurement units in the database.
      * @return Response object with all the measurement units
      */
+    @Transactional(readOnly = true)
     public Response getAllUnits(){
         List<MeasurementUnit> units = measurementRepo.findAll();
 
         return Response.builder()
-                .data(mapToJson(measurementRepo.findAll()))
+                .data(units)
                 .build();
     }
 
@@ -49,11 +71,12 @@ public class MeasurementService extends MainService{
      * @param unitName The name of the unit to be found
      * @return Response object with the found MeasurementUnit
      */
+    @Transactional(readOnly = true)
     public Response getUnitByName(String unitName){
         Optional<MeasurementUnit> found = measurementRepo.findByUnit(unitName);
         if (found.isPresent()){
             return Response.builder()
-                    .data(mapToJson(found.get()))
+                    .data(found.get())
                     .build();
         }else{
             return Response.builder()
@@ -68,11 +91,12 @@ public class MeasurementService extends MainService{
      * @param unitId The id of the unit to be found
      * @return Response object with the found MeasurementUnit
      */
+    @Transactional(readOnly = true)
     public Response getUnitById(String unitId) {
         Optional<MeasurementUnit> found = measurementRepo.findById(unitId);
         if (found.isPresent()) {
             return Response.builder()
-                    .data(mapToJson(found.get()))
+                    .data(found.get())
                     .build();
         } else {
             return Response.builder()
@@ -90,6 +114,8 @@ public class MeasurementService extends MainService{
         Response response;
         try {
             measurementRepo.deleteById(unitId);
+            conversionsChanged();
+            catalogueChangePublisher.deleted(CatalogueChange.UNIT, unitId);
         } catch (Exception e) {
             response = Response.builder()
                     .errors(List.of("Unit not found"))
@@ -108,6 +134,8 @@ public class MeasurementService extends MainService{
         Optional<MeasurementUnit> found = measurementRepo.findByUnit(unitName);
         if (found.isPresent()) {
             measurementRepo.delete(found.get());
+            conversionsChanged();
+            catalogueChangePublisher.deleted(CatalogueChange.UNIT, found.get().getId());
             return Response.builder().build();
         } else {
             return Response.builder()
@@ -122,10 +150,11 @@ public class MeasurementService extends MainService{
      * @return Response object with all the conversion rates
      */
 
+    @Transactional(readOnly = true)
     public Response getAllConversions() {
         List<UnitConversion> conversions = conversionRepo.findAll();
         return Response.builder()
-                .data(mapToJson(conversions))
+                .data(conversions)
                 .build();
     }
 
@@ -154,9 +183,11 @@ public class MeasurementService extends MainService{
                 .build();
 
             newConversion = conversionRepo.save(newConversion);
+            conversionsChanged();
+            catalogueChangePublisher.saved(CatalogueChange.CONVERSION, newConversion.getId());
 
             response = Response.builder()
-                    .data(mapToJson(newConversion))
+                    .data(newConversion)
                     .build();
         }
         return response;
@@ -170,6 +201,8 @@ public class MeasurementService extends MainService{
         Response response;
         try {
             conversionRepo.deleteById(id);
+            conversionsChanged();
+            catalogueChangePublisher.deleted(CatalogueChange.CONVERSION, id);
         } catch (Exception e) {
             response = Response.builder()
                     .errors(List.of("Conversion not found"))
@@ -188,17 +221,14 @@ public class MeasurementService extends MainService{
     public Response convert(Measurement measurement, String toUnit){
         Response response;
 
-        Optional<MeasurementUnit> to = measurementRepo.findByUnit(toUnit);
-        Optional<MeasurementUnit> from = measurementRepo.findByUnit(measurement.getUnit());
-
-        if (to.isEmpty() || from.isEmpty()){
+        if (!measurementConverter.hasUnit(toUnit) || !measurementConverter.hasUnit(measurement.getUnit())){
             response = Response.builder()
                     .errors(List.of("One or more units do not exist"))
                     .status("error")
                     .build();
         }else{
             response = Response.builder()
-                    .data(mapToJson(measurementConverter.convert(measurement, toUnit)))
+                    .data(measurementConverter.convert(measurement, toUnit))
                     .build();
         }
 
@@ -216,13 +246,51 @@ public class MeasurementService extends MainService{
         if (found.isPresent()) {
             return found.get();
         } else {
-            MeasurementUnit newUnit = MeasurementUnit.builder()
+            MeasurementUnit newUnit = measurementRepo.save(MeasurementUnit.builder()
                     .unit(unit)
-                    .build();
-            return measurementRepo.save(newUnit);
+                    .build());
+            catalogueChangePublisher.saved(CatalogueChange.UNIT, newUnit.getId());
+            return newUnit;
 
         }
     }
-}
 
+    /**
+     * Reloads the converter after the units or conversions changed, then normalises every component again,
+     * since the SI values stored on them were converted with the previous conversions.
+     * Only the components whose SI values changed are saved, and the catalogue cache is reloaded if any was.
+     */
+    private void conversionsChanged() {
+        measurementConverter.reload();
+        int renormalised = renormalise(rollerTubeRepo, catalogueNormaliser::normalise,
+                tube -> Arrays.asList(tube.getOuterDiameterSi(), tube.getInnerDiameterSi(),
+                        tube.getWallThicknessSi(), tube.getModulusSi(), tube.getMomentOfInertiaSi()))
+                + renormalise(rollerFabricRepo, catalogueNormaliser::normalise,
+                fabric -> Arrays.asList(fabric.getThicknessSi(), fabric.getWeightSi()))
+                + renormalise(bottomRailRepo, catalogueNormaliser::normalise,
+                bottomRail -> Arrays.asList(bottomRail.getWeightSi()))
+                + renormalise(rollerShadeRepo, catalogueNormaliser::normalise,
+                system -> Arrays.asList(system.getMaxDiameterSi()));
+        if (renormalised > 0) {
+            catalogueCache.reload();
+            log.info("Normalised {} components again with the new conversions", renormalised);
+        }
+    }
 
+    /**
+     * @param si the SI values of a component, compared before and after normalising it
+     * @return the number of components saved
+     */
+    private static <E> int renormalise(JpaRepository<E, String> repo, UnaryOperator<E> normalise,
+                                       Function<E, List<Double>> si) {
+        List<E> changed = new ArrayList<>();
+        for (E component : repo.findAll()) {
+            List<Double> before = si.apply(component);
+            if (!before.equals(si.apply(normalise.apply(component)))) {
+                changed.add(component);
+            }
+        }
+        repo.saveAll(changed);
+        return changed.size();
+    }
+}
@@ -3,11 +3,16 @@ import com.vertilux.shadeCalculator.models.measurements.Measurement;
 import com.vertilux.shadeCalculator.models.rollerShade.RollerFabric;
 import com.vertilux.shadeCalculator.models.Response;
 import com.vertilux.shadeCalculator.repositories.RollerFabricRepo;
+import com.vertilux.shadeCalculator.schemas.CatalogueChange;
 import com.vertilux.shadeCalculator.schemas.RollerFabricCreation;
 import com.vertilux.shadeCalculator.utils.MeasurementConverter;
+import com.vertilux.shadeCalculator.utils.CatalogueCache;
+import com.vertilux.shadeCalculator.utils.CatalogueNormaliser;
+import com.vertilux.shadeCalculator.utils.CatalogueChangePublisher;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -21,20 +26,24 @@ import java.util.List;
 @Slf4j
 @AllArgsConstructor
 @Service
-public class RollerFabricService extends MainService {
+public class RollerFabricService {
     private final RollerFabricRepo rollerFabricRepo;
     private final MeasurementConverter measurementConverter;
+    private final CatalogueChangePublisher catalogueChangePublisher;
+    private final CatalogueCache catalogueCache;
+    private final CatalogueNormaliser catalogueNormaliser;
 
     /**
      * This method returns all the roller fabrics in the database.
      *
      * @return Response object with all the roller fabrics
      */
+    @Transactional(readOnly = true)
     public Response getAllRollerFabrics() {
         List<RollerFabric> rollerFabrics = rollerFabricRepo.findAll();
 
         return Response.builder()
-                .data(mapToJson(rollerFabrics))
+                .data(rollerFabrics)
                 .build();
     }
 
@@ -44,11 +53,12 @@ public class RollerFabricService extends MainService {
      * @param fabricName The name of the fabric to be found
      * @return Response object with the found RollerFabric
      */
+    @Transactional(readOnly = true)
     public Response getRollerFabricByName(String fabricName) {
-        RollerFabric found = rollerFabricRepo.findByName(fabricName).orElse(null);
+        RollerFabric found = catalogueCache.findFabric(fabricName).orElse(null);
         if (found != null) {
             return Response.builder()
-                    .data(mapToJson(found))
+                    .data(found)
                     .build();
         } else {
             return Response.builder()
@@ -64,11 +74,12 @@ public class RollerFabricService extends MainService {
      * @param fabricId The id of the fabric to be found
      * @return Response object with the found RollerFabric
      */
+    @Transactional(readOnly = true)
     public Response getRollerFabricById(String fabricId) {
         RollerFabric found = rollerFabricRepo.findById(fabricId).orElse(null);
         if (found != null) {
             return Response.builder()
-                    .data(mapToJson(found))
+                    .data(found)
                     .build();
         } else {
             return Response.builder()
@@ -95,14 +106,16 @@ public class RollerFabricService extends MainService {
                     .build();
         } else {
 
-            RollerFabric created = rollerFabricRepo.save(RollerFabric.builder()
+            RollerFabric created = rollerFabricRepo.save(catalogueNormaliser.normalise(RollerFabric.builder()
                     .name(fabric.getName())
                     .thickness(fabric.getThickness())
                     .weight(fabric.getWeight())
-                    .build());
+                    .build()));
+            catalogueCache.put(created);
+            catalogueChangePublisher.saved(CatalogueChange.FABRIC, created.getId());
 
             return Response.builder()
-                    .data(mapToJson(created))
+                    .data(created)
                     .build();
         }
 
@@ -120,9 +133,11 @@ public class RollerFabricService extends MainService {
         if (found != null) {
             found.setName(fabric.getName());
             found.setThickness(fabric.getThickness());
-            RollerFabric updated = rollerFabricRepo.save(found);
+            RollerFabric updated = rollerFabricRepo.save(catalogueNormaliser.normalise(found));
+            catalogueCache.put(updated);
+            catalogueChangePublisher.saved(CatalogueChange.FABRIC, updated.getId());
             return Response.builder()
-                    .data(mapToJson(updated))
+                    .data(updated)
                     .build();
         } else {
             return Response.builder()
@@ -144,8 +159,10 @@ public class RollerFabricService extends MainService {
         RollerFabric found = rollerFabricRepo.findByName(fabricName).orElse(null);
         if (found != null) {
             rollerFabricRepo.delete(found);
+            catalogueCache.evictFabric(found.getId());
+            catalogueChangePublisher.deleted(CatalogueChange.FABRIC, found.getId());
             return Response.builder()
-                    .data(mapToJson(found))
+                    .data(found)
                     .build();
         } else {
             return Response.builder()
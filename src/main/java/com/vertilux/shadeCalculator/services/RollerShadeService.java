@@ -4,10 +4,15 @@ package com.vertilux.shadeCalculator.services;
 import com.vertilux.shadeCalculator.models.Response;
 import com.vertilux.shadeCalculator.models.rollerShade.RollerShadeSystem;
 import com.vertilux.shadeCalculator.repositories.RollerShadeRepo;
+import com.vertilux.shadeCalculator.schemas.CatalogueChange;
 import com.vertilux.shadeCalculator.schemas.RollerShadeSystemCreation;
+import com.vertilux.shadeCalculator.utils.CatalogueCache;
+import com.vertilux.shadeCalculator.utils.CatalogueNormaliser;
+import com.vertilux.shadeCalculator.utils.CatalogueChangePublisher;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -24,16 +29,20 @@ import java.util.Optional;
 @Slf4j
 @AllArgsConstructor
 @Service
-public class RollerShadeService extends MainService {
+public class RollerShadeService {
     private final RollerShadeRepo rollerShadeRepo;
+    private final CatalogueChangePublisher catalogueChangePublisher;
+    private final CatalogueCache catalogueCache;
+    private final CatalogueNormaliser catalogueNormaliser;
 
 
     /**
      * @return A Response object with all the RollerShadeSystems
      */
+    @Transactional(readOnly = true)
     public Response getAll() {
         List<RollerShadeSystem> systems = rollerShadeRepo.findAll();
-        return Response.builder().data(mapToJson(systems)).build();
+        return Response.builder().data(systems).build();
     }
 
     /**
@@ -53,8 +62,10 @@ public class RollerShadeService extends MainService {
                     .name(system.getName())
                     .maxDiameter(system.getMaxDiameter())
                     .build();
-            RollerShadeSystem savedSystem = rollerShadeRepo.save(newSystem);
-            return Response.builder().data(mapToJson(savedSystem)).build();
+            RollerShadeSystem savedSystem = rollerShadeRepo.save(catalogueNormaliser.normalise(newSystem));
+            catalogueCache.put(savedSystem);
+            catalogueChangePublisher.saved(CatalogueChange.SYSTEM, savedSystem.getId());
+            return Response.builder().data(savedSystem).build();
         }
 
     }
@@ -65,6 +76,8 @@ public class RollerShadeService extends MainService {
      */
     public Response delete(String id) {
         rollerShadeRepo.deleteById(id);
+        catalogueCache.evictSystem(id);
+        catalogueChangePublisher.deleted(CatalogueChange.SYSTEM, id);
         return Response.builder().build();
     }
 
@@ -78,8 +91,10 @@ public class RollerShadeService extends MainService {
         if (found.isPresent()) {
             RollerShadeSystem updatedSystem = found.get();
             updatedSystem.setName(system.getName());
-            RollerShadeSystem savedSystem = rollerShadeRepo.save(updatedSystem);
-            return Response.builder().data(mapToJson(savedSystem)).build();
+            RollerShadeSystem savedSystem = rollerShadeRepo.save(catalogueNormaliser.normalise(updatedSystem));
+            catalogueCache.put(savedSystem);
+            catalogueChangePublisher.saved(CatalogueChange.SYSTEM, savedSystem.getId());
+            return Response.builder().data(savedSystem).build();
         } else {
             return Response.builder().errors(List.of("System not found")).build();
         }
@@ -89,10 +104,11 @@ public class RollerShadeService extends MainService {
      * @param id The id of the RollerShadeSystem to be retrieved
      * @return A Response object with the RollerShadeSystem
      */
+    @Transactional(readOnly = true)
     public Response getById(String id) {
         Optional<RollerShadeSystem> found = rollerShadeRepo.findById(id);
         if (found.isPresent()) {
-            return Response.builder().data(mapToJson(found.get())).build();
+            return Response.builder().data(found.get()).build();
         } else {
             return Response.builder().errors(List.of("System not found")).build();
         }
@@ -102,10 +118,11 @@ public class RollerShadeService extends MainService {
      * @param name The name of the RollerShadeSystem to be retrieved
      * @return A Response object with the RollerShadeSystem
      */
+    @Transactional(readOnly = true)
     public Response getByName(String name) {
-        Optional<RollerShadeSystem> found = rollerShadeRepo.findByName(name);
+        Optional<RollerShadeSystem> found = catalogueCache.findSystem(name);
         if (found.isPresent()) {
-            return Response.builder().data(mapToJson(found.get())).build();
+            return Response.builder().data(found.get()).build();
         } else {
             return Response.builder().errors(List.of("System not found")).build();
         }
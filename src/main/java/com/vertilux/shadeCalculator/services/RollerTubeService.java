@@ -3,10 +3,15 @@ package com.vertilux.shadeCalculator.services;
 import com.vertilux.shadeCalculator.models.Response;
 import com.vertilux.shadeCalculator.models.rollerShade.RollerTube;
 import com.vertilux.shadeCalculator.repositories.RollerTubeRepo;
+import com.vertilux.shadeCalculator.schemas.CatalogueChange;
 import com.vertilux.shadeCalculator.schemas.RollerTubeCreation;
+import com.vertilux.shadeCalculator.utils.CatalogueCache;
+import com.vertilux.shadeCalculator.utils.CatalogueNormaliser;
+import com.vertilux.shadeCalculator.utils.CatalogueChangePublisher;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -21,18 +26,22 @@ import java.util.Optional;
 @Slf4j
 @AllArgsConstructor
 @Service
-public class RollerTubeService extends MainService{
+public class RollerTubeService {
     private final RollerTubeRepo rollerTubeRepo;
+    private final CatalogueChangePublisher catalogueChangePublisher;
+    private final CatalogueCache catalogueCache;
+    private final CatalogueNormaliser catalogueNormaliser;
 
     /**
      * This method returns all the roller tubes in the database.
      * @return Response object with all the roller tubes
      */
+    @Transactional(readOnly = true)
     public Response getAllRollerTubes(){
         List<RollerTube> rollerTubes = rollerTubeRepo.findAll();
 
         return Response.builder()
-                .data(mapToJson(rollerTubes))
+                .data(rollerTubes)
                 .build();
     }
 
@@ -41,11 +50,12 @@ public class RollerTubeService extends MainService{
      * @param tubeName The name of the tube to be found
      * @return Response object with the found RollerTube
      */
+    @Transactional(readOnly = true)
     public Response getRollerTubeByName(String tubeName) {
-        RollerTube found = rollerTubeRepo.findByName(tubeName).orElse(null);
+        RollerTube found = catalogueCache.findTube(tubeName).orElse(null);
         if (found != null) {
             return Response.builder()
-                    .data(mapToJson(found))
+                    .data(found)
                     .build();
         } else {
             return Response.builder()
@@ -60,11 +70,12 @@ public class RollerTubeService extends MainService{
      * @param tubeId The id of the tube to be found
      * @return Response object with the found RollerTube
      */
+    @Transactional(readOnly = true)
     public Response getRollerTubeById(String tubeId) {
         Optional<RollerTube> found = rollerTubeRepo.findById(tubeId);
         if (found.isPresent()) {
             return Response.builder()
-                    .data(mapToJson(found.get()))
+                    .data(found.get())
                     .build();
         } else {
             return Response.builder()
@@ -88,8 +99,10 @@ public class RollerTubeService extends MainService{
                     .build();
         }else{
             RollerTube created = rollerTubeRepo.save(convertToRollerTube(tube));
+            catalogueCache.put(created);
+            catalogueChangePublisher.saved(CatalogueChange.TUBE, created.getId());
             return Response.builder()
-                    .data(mapToJson(created))
+                    .data(created)
                     .build();
         }
     }
@@ -103,9 +116,13 @@ public class RollerTubeService extends MainService{
     public Response updateRollerTube(String id, RollerTubeCreation tube) {
         RollerTube found = rollerTubeRepo.findById(id).orElse(null);
         if (found != null) {
-            RollerTube updated = rollerTubeRepo.save(convertToRollerTube(tube));
+            RollerTube converted = convertToRollerTube(tube);
+            converted.setId(id);
+            RollerTube updated = rollerTubeRepo.save(converted);
+            catalogueCache.put(updated);
+            catalogueChangePublisher.saved(CatalogueChange.TUBE, updated.getId());
             return Response.builder()
-                    .data(mapToJson(updated))
+                    .data(updated)
                     .build();
         } else {
             return Response.builder()
@@ -124,8 +141,10 @@ public class RollerTubeService extends MainService{
         RollerTube found = rollerTubeRepo.findByName(tubeName).orElse(null);
         if (found != null) {
             rollerTubeRepo.delete(found);
+            catalogueCache.evictTube(found.getId());
+            catalogueChangePublisher.deleted(CatalogueChange.TUBE, found.getId());
             return Response.builder()
-                    .data(mapToJson(found))
+                    .data(found)
                     .build();
         } else {
             return Response.builder()
@@ -142,11 +161,11 @@ public class RollerTubeService extends MainService{
      */
     private RollerTube convertToRollerTube(RollerTubeCreation tube) {
 
-        return RollerTube.builder()
+        return catalogueNormaliser.normalise(RollerTube.builder()
                 .name(tube.getName())
                 .outerDiameter(tube.getOuterDiameter())
                 .innerDiameter(tube.getInnerDiameter())
-                .build();
+                .build());
     }
 
 }
@@ -0,0 +1,288 @@
+package com.vertilux.shadeCalculator.utils;
+
+import com.vertilux.shadeCalculator.models.rollerShade.BottomRail;
+import com.vertilux.shadeCalculator.models.rollerShade.RollerFabric;
+import com.vertilux.shadeCalculator.models.rollerShade.RollerShadeSystem;
+import com.vertilux.shadeCalculator.models.rollerShade.RollerTube;
+import com.vertilux.shadeCalculator.repositories.BottomRailRepo;
+import com.vertilux.shadeCalculator.repositories.RollerFabricRepo;
+import com.vertilux.shadeCalculator.repositories.RollerShadeRepo;
+import com.vertilux.shadeCalculator.repositories.RollerTubeRepo;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * CatalogueCache
+ * <p>
+ *     Read-through cache of the catalogue components, indexed by name.
+ *     Lookups that miss the cache go to the repository and the result is cached.
+ *     Each component type is bounded to a maximum number of entries,
+ *     and the least recently used entries are evicted first.
+ * </p>
+ * <p>
+ *     The cache is warmed on startup, and the component services keep it up to date on every write.
+ *     The hits, misses, evictions and size of each type are published as catalogue.cache metrics.
+ * </p>
+ */
+@Slf4j
+@Component
+public class CatalogueCache implements MeterBinder {
+    private final RollerTubeRepo rollerTubeRepo;
+    private final RollerFabricRepo rollerFabricRepo;
+    private final RollerShadeRepo rollerShadeRepo;
+    private final BottomRailRepo bottomRailRepo;
+
+    private final NameIndex<RollerTube> tubes;
+    private final NameIndex<RollerFabric> fabrics;
+    private final NameIndex<RollerShadeSystem> systems;
+    private final NameIndex<BottomRail> bottomRails;
+
+    public CatalogueCache(RollerTubeRepo rollerTubeRepo,
+                          RollerFabricRepo rollerFabricRepo,
+                          RollerShadeRepo rollerShadeRepo,
+                          BottomRailRepo bottomRailRepo,
+                          @Value("${catalogue.cache.max-size:10000}") int maxSize) {
+        this.rollerTubeRepo = rollerTubeRepo;
+        this.rollerFabricRepo = rollerFabricRepo;
+        this.rollerShadeRepo = rollerShadeRepo;
+        this.bottomRailRepo = bottomRailRepo;
+
+        this.tubes = new NameIndex<>(maxSize, RollerTube::getName, RollerTube::getId, rollerTubeRepo::findByName);
+        this.fabrics = new NameIndex<>(maxSize, RollerFabric::getName, RollerFabric::getId, rollerFabricRepo::findByName);
+        this.systems = new NameIndex<>(maxSize, RollerShadeSystem::getName, RollerShadeSystem::getId, rollerShadeRepo::findByName);
+        this.bottomRails = new NameIndex<>(maxSize, BottomRail::getName, BottomRail::getId, bottomRailRepo::findByName);
+    }
+
+    /**
+     * Loads every component into the cache, up to the maximum size of each type.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        tubes.putAll(rollerTubeRepo.findAll());
+        fabrics.putAll(rollerFabricRepo.findAll());
+        systems.putAll(rollerShadeRepo.findAll());
+        bottomRails.putAll(bottomRailRepo.findAll());
+        log.info("Catalogue cache warmed: {} tubes, {} fabrics, {} systems, {} bottom rails",
+                tubes.size(), fabrics.size(), systems.size(), bottomRails.size());
+    }
+
+    /**
+     * Drops every entry and loads the components again, after the catalogue was replaced as a whole.
+     */
+    public void reload() {
+        tubes.clear();
+        fabrics.clear();
+        systems.clear();
+        bottomRails.clear();
+        warm();
+    }
+
+    public Optional<RollerTube> findTube(String name) {
+        return tubes.find(name);
+    }
+
+    public Optional<RollerFabric> findFabric(String name) {
+        return fabrics.find(name);
+    }
+
+    public Optional<RollerShadeSystem> findSystem(String name) {
+        return systems.find(name);
+    }
+
+    public Optional<BottomRail> findBottomRail(String name) {
+        return bottomRails.find(name);
+    }
+
+    public void put(RollerTube tube) {
+        tubes.put(tube);
+    }
+
+    public void put(RollerFabric fabric) {
+        fabrics.put(fabric);
+    }
+
+    public void put(RollerShadeSystem system) {
+        systems.put(system);
+    }
+
+    public void put(BottomRail bottomRail) {
+        bottomRails.put(bottomRail);
+    }
+
+    public void evictTube(String id) {
+        tubes.evict(id);
+    }
+
+    public void evictFabric(String id) {
+        fabrics.evict(id);
+    }
+
+    public void evictSystem(String id) {
+        systems.evict(id);
+    }
+
+    public void evictBottomRail(String id) {
+        bottomRails.evict(id);
+    }
+
+    /**
+     * @return the hits, misses, evictions and size of each component type
+     */
+    public Map<String, Map<String, Long>> getStats() {
+        return Map.of(
+                "tube", tubes.stats(),
+                "fabric", fabrics.stats(),
+                "system", systems.stats(),
+                "bottomrail", bottomRails.stats()
+        );
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        tubes.bindTo(registry, "tube");
+        fabrics.bindTo(registry, "fabric");
+        systems.bindTo(registry, "system");
+        bottomRails.bindTo(registry, "bottomrail");
+    }
+
+    /**
+     * Bounded, least recently used index of one component type by name.
+     */
+    static final class NameIndex<T> {
+        private final Function<T, String> name;
+        private final Function<T, String> id;
+        private final Function<String, Optional<T>> loader;
+        private final Map<String, T> entries;
+        private final Map<String, String> namesById = new HashMap<>();
+        private long generation;
+
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        final LongAdder evictions = new LongAdder();
+
+        NameIndex(int maxSize, Function<T, String> name, Function<T, String> id, Function<String, Optional<T>> loader) {
+            this.name = name;
+            this.id = id;
+            this.loader = loader;
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, T> eldest) {
+                    boolean evict = size() > maxSize;
+                    if (evict) {
+                        namesById.remove(id.apply(eldest.getValue()));
+                        evictions.increment();
+                    }
+                    return evict;
+                }
+            };
+        }
+
+        Optional<T> find(String key) {
+            if (key == null) {
+                return Optional.empty();
+            }
+            T found;
+            long loadedAt;
+            synchronized (entries) {
+                found = entries.get(key);
+                loadedAt = generation;
+            }
+            if (found != null) {
+                hits.increment();
+                return Optional.of(found);
+            }
+            misses.increment();
+            Optional<T> loaded = loader.apply(key);
+            loaded.ifPresent(entity -> {
+                synchronized (entries) {
+                    // a write landed while loading, the loaded entity may already be stale
+                    if (generation == loadedAt) {
+                        add(entity);
+                    }
+                }
+            });
+            return loaded;
+        }
+
+        void put(T entity) {
+            synchronized (entries) {
+                generation++;
+                add(entity);
+            }
+        }
+
+        void putAll(List<T> entities) {
+            entities.forEach(this::put);
+        }
+
+        void evict(String entityId) {
+            synchronized (entries) {
+                generation++;
+                remove(entityId);
+            }
+        }
+
+        void clear() {
+            synchronized (entries) {
+                generation++;
+                entries.clear();
+                namesById.clear();
+            }
+        }
+
+        private void add(T entity) {
+            // the name may have changed, so drop any entry holding the same entity first
+            remove(id.apply(entity));
+            entries.put(name.apply(entity), entity);
+            namesById.put(id.apply(entity), name.apply(entity));
+        }
+
+        private void remove(String entityId) {
+            String previous = entityId == null ? null : namesById.remove(entityId);
+            if (previous != null) {
+                entries.remove(previous);
+            }
+        }
+
+        long size() {
+            synchronized (entries) {
+                return entries.size();
+            }
+        }
+
+        void bindTo(MeterRegistry registry, String type) {
+            FunctionCounter.builder("catalogue.cache.gets", hits, LongAdder::sum)
+                    .tag("type", type).tag("result", "hit").register(registry);
+            FunctionCounter.builder("catalogue.cache.gets", misses, LongAdder::sum)
+                    .tag("type", type).tag("result", "miss").register(registry);
+            FunctionCounter.builder("catalogue.cache.evictions", evictions, LongAdder::sum)
+                    .tag("type", type).register(registry);
+            Gauge.builder("catalogue.cache.size", this, NameIndex::size)
+                    .tag("type", type).register(registry);
+        }
+
+        Map<String, Long> stats() {
+            return Map.of(
+                    "hits", hits.sum(),
+                    "misses", misses.sum(),
+                    "evictions", evictions.sum(),
+                    "size", size()
+            );
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.vertilux.shadeCalculator.utils;
+
+import com.vertilux.shadeCalculator.schemas.CatalogueChange;
+import com.vertilux.shadeCalculator.schemas.CatalogueChange.Action;
+import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * CatalogueChangePublisher
+ * <p>
+ *     Bumps the catalogue version for a change to the catalogue, and publishes the change as a CatalogueChange
+ *     application event with the new version. The services call it instead of CatalogueVersion.bump.
+ *     They call it after updating the CatalogueCache, so a table rebuilt for the new version
+ *     never reads the entities of the previous one.
+ * </p>
+ * <p>
+ *     The listeners receive the event once the surrounding transaction commits,
+ *     or right away when there is none, as the repository call before it has already committed.
+ * </p>
+ *
+ * @see com.vertilux.shadeCalculator.services.CatalogueChangeService
+ */
+@AllArgsConstructor
+@Component
+public class CatalogueChangePublisher {
+    private final CatalogueVersion catalogueVersion;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * @param type the type of the entity, one of the CatalogueChange constants
+     * @param id the id of the entity created or updated
+     * @return the new catalogue version
+     */
+    public long saved(String type, String id) {
+        return publish(type, id, Action.SAVED);
+    }
+
+    /**
+     * @param type the type of the entity, one of the CatalogueChange constants
+     * @param id the id of the entity deleted
+     * @return the new catalogue version
+     */
+    public long deleted(String type, String id) {
+        return publish(type, id, Action.DELETED);
+    }
+
+    /**
+     * Publishes the replacement of the whole catalogue, after which every cached entity is stale.
+     * @return the new catalogue version
+     */
+    public long reloaded() {
+        return publish(null, null, Action.RELOADED);
+    }
+
+    private long publish(String type, String id, Action action) {
+        long version = catalogueVersion.bump();
+        eventPublisher.publishEvent(CatalogueChange.builder()
+                .type(type)
+                .id(id)
+                .action(action)
+                .version(version)
+                .build());
+        return version;
+    }
+}
@@ -0,0 +1,199 @@
+package com.vertilux.shadeCalculator.utils;
+
+import com.vertilux.shadeCalculator.models.measurements.Measurement;
+import com.vertilux.shadeCalculator.models.rollerShade.BottomRail;
+import com.vertilux.shadeCalculator.models.rollerShade.RollerFabric;
+import com.vertilux.shadeCalculator.models.rollerShade.RollerShadeSystem;
+import com.vertilux.shadeCalculator.models.rollerShade.RollerTube;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * CatalogueNormaliser
+ * <p>
+ *     Converts the measurements of the catalogue components into SI units when they are written,
+ *     and stores them on the entity alongside the measurements as entered,
+ *     together with the values derived from them, such as the wall thickness and moment of inertia of a tube.
+ *     The ShadeCalculator then reads ready to use doubles instead of converting the measurements on every request.
+ * </p>
+ * <p>
+ *     The getters return the stored SI value, or convert the measurement when it is missing,
+ *     for rows written before the SI columns existed or while a unit had no conversion.
+ * </p>
+ *
+ * @see ShadeCalculator
+ */
+@AllArgsConstructor
+@Component
+public class CatalogueNormaliser {
+    private static final int M = UnitRegistry.intern("m");
+    private static final int KG_PER_M = UnitRegistry.intern("kg/m");
+    private static final int KG_PER_M2 = UnitRegistry.intern("kg/m2");
+    private static final int N_PER_MM2 = UnitRegistry.intern("N/mm2");
+    private static final double PASCALS_PER_N_MM2 = 1_000_000;
+
+    private MeasurementConverter measurementConverter;
+
+    /**
+     * @param tube the tube to normalise
+     * @return the same tube, with its SI values set
+     */
+    public RollerTube normalise(RollerTube tube) {
+        return normalise(tube, measurementConverter.getGraph());
+    }
+
+    /**
+     * @param tube the tube to normalise
+     * @param graph the conversions to normalise with, instead of the current ones
+     * @return the same tube, with its SI values set
+     */
+    public RollerTube normalise(RollerTube tube, ConversionGraph graph) {
+        double outerDiameter = toSi(tube.getOuterDiameter(), M, graph);
+        double innerDiameter = toSi(tube.getInnerDiameter(), M, graph);
+        double wallThickness = outerDiameter - innerDiameter;
+        tube.setOuterDiameterSi(stored(outerDiameter));
+        tube.setInnerDiameterSi(stored(innerDiameter));
+        tube.setWallThicknessSi(stored(wallThickness));
+        tube.setModulusSi(stored(toSi(tube.getModulus(), N_PER_MM2, graph) * PASCALS_PER_N_MM2));
+        tube.setMomentOfInertiaSi(stored(ShadeKernel.momentOfInertia(innerDiameter, wallThickness)));
+        return tube;
+    }
+
+    /**
+     * @param fabric the fabric to normalise
+     * @return the same fabric, with its SI values set
+     */
+    public RollerFabric normalise(RollerFabric fabric) {
+        return normalise(fabric, measurementConverter.getGraph());
+    }
+
+    /**
+     * @param fabric the fabric to normalise
+     * @param graph the conversions to normalise with, instead of the current ones
+     * @return the same fabric, with its SI values set
+     */
+    public RollerFabric normalise(RollerFabric fabric, ConversionGraph graph) {
+        fabric.setThicknessSi(stored(toSi(fabric.getThickness(), M, graph)));
+        fabric.setWeightSi(stored(toSi(fabric.getWeight(), KG_PER_M2, graph)));
+        return fabric;
+    }
+
+    /**
+     * @param bottomRail the bottom rail to normalise
+     * @return the same bottom rail, with its SI value set
+     */
+    public BottomRail normalise(BottomRail bottomRail) {
+        return normalise(bottomRail, measurementConverter.getGraph());
+    }
+
+    /**
+     * @param bottomRail the bottom rail to normalise
+     * @param graph the conversions to normalise with, instead of the current ones
+     * @return the same bottom rail, with its SI value set
+     */
+    public BottomRail normalise(BottomRail bottomRail, ConversionGraph graph) {
+        bottomRail.setWeightSi(stored(toSi(bottomRail.getWeight(), KG_PER_M, graph)));
+        return bottomRail;
+    }
+
+    /**
+     * @param system the system to normalise
+     * @return the same system, with its SI value set
+     */
+    public RollerShadeSystem normalise(RollerShadeSystem system) {
+        return normalise(system, measurementConverter.getGraph());
+    }
+
+    /**
+     * @param system the system to normalise
+     * @param graph the conversions to normalise with, instead of the current ones
+     * @return the same system, with its SI value set
+     */
+    public RollerShadeSystem normalise(RollerShadeSystem system, ConversionGraph graph) {
+        system.setMaxDiameterSi(stored(toSi(system.getMaxDiameter(), M, graph)));
+        return system;
+    }
+
+    /**
+     * @return the outer diameter of the tube in m, NaN if its unit cannot be converted
+     */
+    public double outerDiameter(RollerTube tube) {
+        Double stored = tube.getOuterDiameterSi();
+        return stored != null ? stored : toSi(tube.getOuterDiameter(), M);
+    }
+
+    /**
+     * @return the modulus of elasticity of the tube in Pa, NaN if its unit cannot be converted
+     */
+    public double modulus(RollerTube tube) {
+        Double stored = tube.getModulusSi();
+        return stored != null ? stored : toSi(tube.getModulus(), N_PER_MM2) * PASCALS_PER_N_MM2;
+    }
+
+    /**
+     * @return the moment of inertia of the tube in m^4, NaN if its units cannot be converted
+     */
+    public double momentOfInertia(RollerTube tube) {
+        Double stored = tube.getMomentOfInertiaSi();
+        if (stored != null) {
+            return stored;
+        }
+        double innerDiameter = toSi(tube.getInnerDiameter(), M);
+        return ShadeKernel.momentOfInertia(innerDiameter, toSi(tube.getOuterDiameter(), M) - innerDiameter);
+    }
+
+    /**
+     * @return the thickness of the fabric in m, NaN if its unit cannot be converted
+     */
+    public double thickness(RollerFabric fabric) {
+        Double stored = fabric.getThicknessSi();
+        return stored != null ? stored : toSi(fabric.getThickness(), M);
+    }
+
+    /**
+     * @return the weight of the fabric in kg/m2, NaN if its unit cannot be converted
+     */
+    public double weight(RollerFabric fabric) {
+        Double stored = fabric.getWeightSi();
+        return stored != null ? stored : toSi(fabric.getWeight(), KG_PER_M2);
+    }
+
+    /**
+     * @return the weight of the bottom rail in kg/m, NaN if its unit cannot be converted
+     */
+    public double weight(BottomRail bottomRail) {
+        Double stored = bottomRail.getWeightSi();
+        return stored != null ? stored : toSi(bottomRail.getWeight(), KG_PER_M);
+    }
+
+    /**
+     * @return the maximum roll up diameter of the system in m, NaN if its unit cannot be converted
+     */
+    public double maxDiameter(RollerShadeSystem system) {
+        Double stored = system.getMaxDiameterSi();
+        return stored != null ? stored : toSi(system.getMaxDiameter(), M);
+    }
+
+    /**
+     * @param measurement the measurement to convert, may be null
+     * @param siUnit the UnitRegistry id of the SI unit to convert to
+     * @return the value in the SI unit, or NaN if the measurement is missing or cannot be converted
+     */
+    private double toSi(Measurement measurement, int siUnit) {
+        return toSi(measurement, siUnit, measurementConverter.getGraph());
+    }
+
+    private static double toSi(Measurement measurement, int siUnit, ConversionGraph graph) {
+        if (measurement == null) {
+            return Double.NaN;
+        }
+        return measurement.getValue() * graph.factor(UnitRegistry.find(measurement.getUnit()), siUnit);
+    }
+
+    /**
+     * @return the value to store, null if it is NaN so the getters fall back to converting
+     */
+    private static Double stored(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+}
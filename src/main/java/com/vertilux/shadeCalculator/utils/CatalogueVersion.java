@@ -0,0 +1,78 @@
+package com.vertilux.shadeCalculator.utils;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CatalogueVersion
+ * <p>
+ *     Monotonically increasing version of the component and measurement catalogue.
+ *     Every service method that creates, updates or deletes a catalogue entity bumps it,
+ *     so anything derived from the catalogue can tell whether it is still current.
+ * </p>
+ * <p>
+ *     The version restarts with the process, so the ETag also carries the start time of the process,
+ *     and a tag handed out before a restart never matches a later one.
+ * </p>
+ */
+@Component
+public class CatalogueVersion {
+    private final AtomicLong version = new AtomicLong(1);
+    private final String instance = Long.toString(System.currentTimeMillis(), 36);
+    private volatile long lastModified = System.currentTimeMillis();
+
+    /**
+     * @return the current catalogue version
+     */
+    public long get() {
+        return version.get();
+    }
+
+    /**
+     * Marks the catalogue as changed.
+     * @return the new catalogue version
+     */
+    public long bump() {
+        lastModified = System.currentTimeMillis();
+        return version.incrementAndGet();
+    }
+
+    /**
+     * @return the epoch milliseconds of the last change, or of the start of the process if there was none
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * @param version a version of this process
+     * @return the version, prefixed with the start time of the process like the ETag, so it is unique across restarts
+     */
+    public String getTag(long version) {
+        return instance + "-" + version;
+    }
+
+    /**
+     * @param tag a tag returned by getTag
+     * @return the version of the tag, -1 if it is not a tag of this process
+     */
+    public long parseTag(String tag) {
+        String prefix = instance + "-";
+        if (tag != null && tag.startsWith(prefix)) {
+            try {
+                return Long.parseLong(tag.substring(prefix.length()));
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return a strong entity tag of the current catalogue version
+     */
+    public String getETag() {
+        return "\"" + getTag(version.get()) + "\"";
+    }
+}
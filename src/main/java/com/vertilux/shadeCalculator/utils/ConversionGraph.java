@@ -0,0 +1,169 @@
+package com.vertilux.shadeCalculator.utils;
+
+import com.vertilux.shadeCalculator.models.measurements.MeasurementUnit;
+import com.vertilux.shadeCalculator.models.measurements.UnitConversion;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * ConversionGraph
+ * <p>
+ *     Immutable in-memory snapshot of every MeasurementUnit and UnitConversion.
+ *     Units are identified by their UnitRegistry id, and the conversion factors
+ *     are stored in a flat id x id matrix, so a lookup by id is a single array index.
+ * </p>
+ * <p>
+ *     The matrix holds the full closure of the stored conversions: inverse factors are
+ *     derived from the opposite direction, and multi-hop paths (e.g. mm -> m -> ft) are
+ *     resolved once when the graph is built, so a derived conversion costs the same as a
+ *     direct one. Stored conversions always take precedence over derived ones.
+ *     Units registered but missing from the tables have no factor, not even to themselves.
+ * </p>
+ * <p>
+ *     Instances are never modified once built; the MeasurementConverter swaps in a new
+ *     graph whenever the underlying tables change.
+ * </p>
+ *
+ * @see MeasurementConverter
+ * @see UnitRegistry
+ */
+public final class ConversionGraph {
+    public static final int UNKNOWN_UNIT = UnitRegistry.UNKNOWN_UNIT;
+
+    static final ConversionGraph EMPTY = new ConversionGraph(0, 0, 0, new double[0]);
+
+    private final long version;
+    private final int units;
+    private final int dimension;
+    private final double[] factors;
+
+    private ConversionGraph(long version, int units, int dimension, double[] factors) {
+        this.version = version;
+        this.units = units;
+        this.dimension = dimension;
+        this.factors = factors;
+    }
+
+    /**
+     * Builds a graph from the given units and conversions, registering their symbols in the UnitRegistry.
+     * Conversions referencing a unit missing from the list are still registered.
+     * @param version the version of the conversion tables the graph is built from
+     * @param measurementUnits all the known measurement units
+     * @param conversions all the known conversions
+     * @return the compiled graph
+     */
+    public static ConversionGraph build(long version, List<MeasurementUnit> measurementUnits, List<UnitConversion> conversions) {
+        Set<Integer> known = new HashSet<>();
+        measurementUnits.forEach(unit -> intern(known, unit.getUnit()));
+        conversions.forEach(conversion -> {
+            intern(known, conversion.getFrom().getUnit());
+            intern(known, conversion.getTo().getUnit());
+        });
+
+        int size = UnitRegistry.size();
+        double[] factors = new double[size * size];
+        Arrays.fill(factors, Double.NaN);
+        for (int id : known) {
+            factors[id * size + id] = 1;
+        }
+        for (UnitConversion conversion : conversions) {
+            int from = UnitRegistry.find(conversion.getFrom().getUnit());
+            int to = UnitRegistry.find(conversion.getTo().getUnit());
+            if (from != to) {
+                factors[from * size + to] = conversion.getFactor();
+            }
+        }
+        for (UnitConversion conversion : conversions) {
+            int from = UnitRegistry.find(conversion.getFrom().getUnit());
+            int to = UnitRegistry.find(conversion.getTo().getUnit());
+            if (Double.isNaN(factors[to * size + from]) && conversion.getFactor() != 0) {
+                factors[to * size + from] = 1 / conversion.getFactor();
+            }
+        }
+        close(factors, size);
+
+        return new ConversionGraph(version, known.size(), size, factors);
+    }
+
+    /**
+     * Fills in every missing factor that can be reached through other units (Floyd-Warshall).
+     * Known factors are never overwritten.
+     */
+    private static void close(double[] factors, int size) {
+        for (int k = 0; k < size; k++) {
+            for (int i = 0; i < size; i++) {
+                double ik = factors[i * size + k];
+                if (Double.isNaN(ik)) {
+                    continue;
+                }
+                for (int j = 0; j < size; j++) {
+                    double kj = factors[k * size + j];
+                    if (Double.isNaN(factors[i * size + j]) && !Double.isNaN(kj)) {
+                        factors[i * size + j] = ik * kj;
+                    }
+                }
+            }
+        }
+    }
+
+    private static void intern(Set<Integer> known, String unit) {
+        int id = UnitRegistry.intern(unit);
+        if (id != UNKNOWN_UNIT) {
+            known.add(id);
+        }
+    }
+
+    /**
+     * @param unit the unit symbol
+     * @return the UnitRegistry id of the unit, or UNKNOWN_UNIT if the unit is not in the graph
+     */
+    public int unitId(String unit) {
+        int id = UnitRegistry.find(unit);
+        return hasUnit(id) ? id : UNKNOWN_UNIT;
+    }
+
+    /**
+     * @param id the UnitRegistry id of the unit
+     * @return true if the unit is in the conversion tables the graph was built from
+     */
+    public boolean hasUnit(int id) {
+        return id >= 0 && id < dimension && !Double.isNaN(factors[id * dimension + id]);
+    }
+
+    /**
+     * @param id the id of the unit
+     * @return the canonical symbol of the unit
+     */
+    public String unit(int id) {
+        return UnitRegistry.symbol(id);
+    }
+
+    /**
+     * @param from the UnitRegistry id of the unit to convert from
+     * @param to the UnitRegistry id of the unit to convert to
+     * @return the conversion factor, or NaN if there is no conversion
+     */
+    public double factor(int from, int to) {
+        if (from < 0 || to < 0 || from >= dimension || to >= dimension) {
+            return Double.NaN;
+        }
+        return factors[from * dimension + to];
+    }
+
+    /**
+     * @return the version of the conversion tables the graph was built from
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the number of units in the graph
+     */
+    public int size() {
+        return units;
+    }
+}
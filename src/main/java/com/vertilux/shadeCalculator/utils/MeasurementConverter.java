@@ -5,41 +5,121 @@ import com.vertilux.shadeCalculator.models.measurements.MeasurementUnit;
 import com.vertilux.shadeCalculator.models.measurements.UnitConversion;
 import com.vertilux.shadeCalculator.repositories.ConversionRepo;
 import com.vertilux.shadeCalculator.repositories.UnitRepo;
-import lombok.AllArgsConstructor;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * This class is responsible for converting measurements
  * from one unit to another.
- * It uses a list of UnitConversions to perform the conversions.
+ * It keeps every UnitConversion in an in-memory ConversionGraph,
+ * which is rebuilt whenever the conversion tables change.
+ * Inverse and multi-hop conversions are derived from the stored ones.
+ * Units can be given by symbol, or by their UnitRegistry id to skip the symbol lookup.
  * If a conversion is not found, it returns -1.
+ * Every convert and factor call is counted in the measurement.conversions metric, tagged with its result,
+ * which covers the conversions of the ShadeCalculator and the CatalogueNormaliser getters.
+ * Normalising against a ConversionGraph directly, as when a catalogue is loaded, is not counted.
+ *
+ * @see ConversionGraph
  */
 
 @Slf4j
-@AllArgsConstructor
 @Component
 public class MeasurementConverter {
-    private UnitRepo unitRepo;
-    private ConversionRepo conversionRepo;
+    private final UnitRepo unitRepo;
+    private final ConversionRepo conversionRepo;
+
+    private final AtomicLong versions = new AtomicLong();
+    private volatile ConversionGraph graph = ConversionGraph.EMPTY;
+
+    private final Counter converted;
+    private final Counter failed;
+
+    public MeasurementConverter(UnitRepo unitRepo, ConversionRepo conversionRepo, MeterRegistry meterRegistry) {
+        this.unitRepo = unitRepo;
+        this.conversionRepo = conversionRepo;
+        this.converted = meterRegistry.counter("measurement.conversions", "result", "converted");
+        this.failed = meterRegistry.counter("measurement.conversions", "result", "failed");
+    }
+
+    /**
+     * Reloads every unit and conversion from the database,
+     * and atomically replaces the current graph.
+     */
+    @PostConstruct
+    public synchronized void reload() {
+        load(unitRepo.findAll(), conversionRepo.findAll());
+    }
+
+    /**
+     * Atomically replaces the current graph with one built from the given units and conversions,
+     * for catalogues that are not read from the repositories.
+     * @param units the measurement units
+     * @param conversions the conversions between them
+     */
+    public synchronized void load(List<MeasurementUnit> units, List<UnitConversion> conversions) {
+        install(build(units, conversions));
+    }
+
+    /**
+     * Builds a graph without using it, so a catalogue can be prepared with it
+     * and both published together once everything succeeded.
+     * @param units the measurement units
+     * @param conversions the conversions between them
+     * @return the new graph, to pass to install
+     */
+    public ConversionGraph build(List<MeasurementUnit> units, List<UnitConversion> conversions) {
+        return ConversionGraph.build(versions.incrementAndGet(), units, conversions);
+    }
+
+    /**
+     * Atomically replaces the current graph with one returned by build.
+     * @param built the graph to convert with
+     */
+    public synchronized void install(ConversionGraph built) {
+        graph = built;
+        log.debug("Loaded {} measurement units", built.size());
+    }
+
+    /**
+     * @return the graph currently used for conversions
+     */
+    public ConversionGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * @param unit the unit symbol
+     * @return true if the unit is known to the converter
+     */
+    public boolean hasUnit(String unit) {
+        return graph.unitId(unit) != ConversionGraph.UNKNOWN_UNIT;
+    }
 
     /**
      * @param from the measurement to convert
      * @param to the unit to convert to
      * @return the converted value, or -1 if the conversion is not possible
      */
+    @Timed("measurement.convert")
     public Measurement convert(Measurement from, String to) {
         Measurement result = Measurement.builder().value(-1).build();
-        // find to unit
-        MeasurementUnit toUnit = unitRepo.findByUnit(to).orElse(null);
-        MeasurementUnit fromUnit = unitRepo.findByUnit(from.getUnit()).orElse(null);
-        if(toUnit != null && fromUnit != null){
-            if (!fromUnit.equals(toUnit)) {
-                UnitConversion conversion = conversionRepo.findByFromAndTo(fromUnit, toUnit).orElse(null);
-                if (conversion != null) {
-                    double value = from.getValue() * conversion.getFactor();
+        ConversionGraph current = graph;
+        int toUnit = current.unitId(to);
+        int fromUnit = current.unitId(from.getUnit());
+        if (toUnit != ConversionGraph.UNKNOWN_UNIT && fromUnit != ConversionGraph.UNKNOWN_UNIT) {
+            if (fromUnit != toUnit) {
+                double factor = current.factor(fromUnit, toUnit);
+                if (!Double.isNaN(factor)) {
                     result = Measurement.builder()
-                            .value(value)
+                            .value(from.getValue() * factor)
                             .unit(to)
                             .build();
                 }
@@ -47,6 +127,50 @@ public class MeasurementConverter {
                 result = from;
             }
         }
+        count(result.getUnit() != null);
         return result;
     }
+
+    /**
+     * @param from the unit to convert from
+     * @param to the unit to convert to
+     * @return the conversion factor, or NaN if the conversion is not possible
+     */
+    public double factor(String from, String to) {
+        ConversionGraph current = graph;
+        double factor = current.factor(current.unitId(from), current.unitId(to));
+        count(!Double.isNaN(factor));
+        return factor;
+    }
+
+    /**
+     * @param from the UnitRegistry id of the unit to convert from
+     * @param to the UnitRegistry id of the unit to convert to
+     * @return the conversion factor, or NaN if the conversion is not possible
+     */
+    public double factor(int from, int to) {
+        double factor = graph.factor(from, to);
+        count(!Double.isNaN(factor));
+        return factor;
+    }
+
+    /**
+     * @param value the value to convert
+     * @param from the unit of the value
+     * @param to the unit to convert to
+     * @return the converted value, or -1 if the conversion is not possible
+     */
+    public double convert(double value, String from, String to) {
+        ConversionGraph current = graph;
+        double factor = current.factor(current.unitId(from), current.unitId(to));
+        count(!Double.isNaN(factor));
+        return Double.isNaN(factor) ? -1 : value * factor;
+    }
+
+    /**
+     * @param success false if the conversion returned -1 or NaN because it is not possible
+     */
+    private void count(boolean success) {
+        (success ? converted : failed).increment();
+    }
 }
@@ -0,0 +1,183 @@
+package com.vertilux.shadeCalculator.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vertilux.shadeCalculator.models.measurements.Measurement;
+import com.vertilux.shadeCalculator.schemas.OrderLine;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * OrderLineReader
+ * <p>
+ *     Reads the shades of an order file one line at a time, so only the current line is held in memory.
+ *     Blank lines are skipped.
+ * </p>
+ * <p>
+ *     NDJSON files have one OrderLine object per line.
+ *     CSV files start with a header naming the columns, in any order:
+ *     fabric, tube, system, width, drop and unit, the unit of both the width and the drop.
+ *     Fields may be quoted, with "" for a quote inside a quoted field, but may not span lines.
+ *     A quote that does not start a field is kept as is, like the inch mark in 38mm - 1 1/2" STD.
+ * </p>
+ */
+public class OrderLineReader implements Closeable {
+    public enum Format { CSV, NDJSON }
+
+    private static final List<String> COLUMNS = List.of("fabric", "tube", "system", "width", "drop", "unit");
+
+    private final BufferedReader reader;
+    private final Format format;
+    private final ObjectMapper mapper;
+    private Map<String, Integer> columns;
+    private long lineNumber;
+
+    public OrderLineReader(InputStream in, Format format, ObjectMapper mapper) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        this.format = format;
+        this.mapper = mapper;
+    }
+
+    /**
+     * @return the next shade of the file, or null at the end of the file
+     * @throws IllegalArgumentException if the line cannot be parsed, the following lines can still be read
+     * @throws IllegalStateException if the CSV header is invalid, no line can be read
+     * @throws IOException if the file cannot be read
+     */
+    public OrderLine read() throws IOException {
+        String line = nextLine();
+        if (line != null && format == Format.CSV && columns == null) {
+            columns = parseHeader(line);
+            line = nextLine();
+        }
+        if (line == null) {
+            return null;
+        }
+        OrderLine orderLine = format == Format.CSV ? parseCsv(line) : parseJson(line);
+        orderLine.setLine(lineNumber);
+        return orderLine;
+    }
+
+    /**
+     * @return the number of the last line read, starting at 1
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * @return the next line that is not blank, or null at the end of the file
+     */
+    private String nextLine() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            lineNumber++;
+        } while (line != null && line.isBlank());
+        return line;
+    }
+
+    private Map<String, Integer> parseHeader(String line) {
+        List<String> fields;
+        try {
+            fields = split(line);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid CSV header: " + e.getMessage());
+        }
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            header.put(fields.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!header.keySet().containsAll(COLUMNS)) {
+            throw new IllegalStateException("The CSV header must have the columns " + String.join(", ", COLUMNS));
+        }
+        return header;
+    }
+
+    private OrderLine parseCsv(String line) {
+        List<String> fields = split(line);
+        if (fields.size() < columns.size()) {
+            throw new IllegalArgumentException("Expected " + columns.size() + " columns, found " + fields.size());
+        }
+        String unit = field(fields, "unit");
+        return OrderLine.builder()
+                .fabricName(field(fields, "fabric"))
+                .tubeName(field(fields, "tube"))
+                .systemName(field(fields, "system"))
+                .width(Measurement.builder().value(Double.parseDouble(field(fields, "width"))).unit(unit).build())
+                .drop(Measurement.builder().value(Double.parseDouble(field(fields, "drop"))).unit(unit).build())
+                .build();
+    }
+
+    private OrderLine parseJson(String line) {
+        OrderLine orderLine;
+        try {
+            orderLine = mapper.readValue(line, OrderLine.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+        }
+        // a null line is valid JSON, but not a shade
+        if (orderLine == null) {
+            throw new IllegalArgumentException("Line " + lineNumber + " is empty");
+        }
+        return orderLine;
+    }
+
+    private String field(List<String> fields, String column) {
+        return fields.get(columns.get(column)).trim();
+    }
+
+    /**
+     * @param line one line of a CSV file
+     * @return the fields of the line, unquoted
+     */
+    private static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldStart = true;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"' && fieldStart) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                fieldStart = true;
+                continue;
+            } else {
+                field.append(c);
+            }
+            fieldStart = false;
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,71 @@
+package com.vertilux.shadeCalculator.utils;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.AllArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SecondLevelCache
+ * <p>
+ *     Names the Hibernate second-level cache regions of the catalogue entities, one region per entity,
+ *     and reports the hit ratio of each region and of the query cache from the Hibernate statistics.
+ *     The regions are configured in ehcache.xml.
+ * </p>
+ * <p>
+ *     The entities are cached read-write, so every save and delete of the component services
+ *     goes through Hibernate and updates or evicts the cached entity in the same transaction,
+ *     and invalidates the cached findByName, findByUnit and findByFromAndTo results of its table.
+ * </p>
+ */
+@AllArgsConstructor
+@Component
+@Profile("!embedded")
+public class SecondLevelCache {
+    public static final String TUBE_REGION = "catalogue.tube";
+    public static final String FABRIC_REGION = "catalogue.fabric";
+    public static final String SYSTEM_REGION = "catalogue.system";
+    public static final String BOTTOM_RAIL_REGION = "catalogue.bottomrail";
+    public static final String UNIT_REGION = "catalogue.unit";
+    public static final String CONVERSION_REGION = "catalogue.conversion";
+
+    private static final List<String> REGIONS = List.of(
+            TUBE_REGION, FABRIC_REGION, SYSTEM_REGION, BOTTOM_RAIL_REGION, UNIT_REGION, CONVERSION_REGION);
+
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * @return the hits, misses, puts and hit ratio of each entity region, and of the query cache under "queries"
+     */
+    public Map<String, Map<String, Object>> getStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        for (String region : REGIONS) {
+            CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(region);
+            if (regionStatistics != null) {
+                stats.put(region, stats(regionStatistics.getHitCount(), regionStatistics.getMissCount(),
+                        regionStatistics.getPutCount()));
+            }
+        }
+        stats.put("queries", stats(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount(),
+                statistics.getQueryCachePutCount()));
+        return stats;
+    }
+
+    private static Map<String, Object> stats(long hits, long misses, long puts) {
+        long requests = hits + misses;
+        return Map.of(
+                "hits", hits,
+                "misses", misses,
+                "puts", puts,
+                "hitRatio", requests == 0 ? 0.0 : (double) hits / requests
+        );
+    }
+}
@@ -5,12 +5,10 @@ import com.vertilux.shadeCalculator.models.rollerShade.BottomRail;
 import com.vertilux.shadeCalculator.models.rollerShade.RollerFabric;
 import com.vertilux.shadeCalculator.models.rollerShade.RollerShadeSystem;
 import com.vertilux.shadeCalculator.models.rollerShade.RollerTube;
-import com.vertilux.shadeCalculator.repositories.BottomRailRepo;
 import com.vertilux.shadeCalculator.repositories.RollerTubeRepo;
 import com.vertilux.shadeCalculator.schemas.RollerTubeResponse;
 import com.vertilux.shadeCalculator.schemas.SystemLimit;
-import com.vertilux.shadeCalculator.services.BottomRailService;
-import com.vertilux.shadeCalculator.services.RollerFabricService;
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -22,16 +20,32 @@ import java.util.List;
  * This class is responsible for basic calculations for a roller shade
  * Methods:
  * - getRollUp calculates the roll up diameter of a fabric based on the drop and the tube
+ * <p>
+ * The formulas themselves live in the ShadeKernel, which works on plain SI doubles.
+ * This class converts the Measurements into SI units once, runs the kernel,
+ * and converts the result back into a Measurement.
+ * The SI units are resolved into UnitRegistry ids once, so converting a measurement
+ * costs a single symbol lookup for its own unit.
+ * The components are read through the CatalogueNormaliser, which returns the SI values stored on them.
+ * Every public method called through the bean is timed in the shade.calculator metric.
+ * </p>
  *
+ * @see ShadeKernel
  */
 @Slf4j
 @AllArgsConstructor
 @Component
+@Timed("shade.calculator")
 public class ShadeCalculator {
+    private static final String BOTTOM_RAIL = "Euro Slim";
+    private static final double MAX_DEFLECTION = 2.99; // mm
+    private static final double DROP_LIMIT = 3; // m
+    private static final int M = UnitRegistry.intern("m");
+    private static final int MM = UnitRegistry.intern("mm");
+
     private MeasurementConverter measurementConverter;
-    private BottomRailRepo bottomRailRepo;
-    private BottomRailService bottomRailService;
-    private RollerFabricService fabricService;
+    private CatalogueNormaliser catalogueNormaliser;
+    private CatalogueCache catalogueCache;
     private RollerTubeRepo tubeRepo;
 
     /**
@@ -43,74 +57,12 @@ public class ShadeCalculator {
      * @return the roll up of the shade in the same unit as the drop
      */
     public Measurement getRollUp(Measurement drop, Measurement tubeOuterDiameter, Measurement fabricThickness) {
-        double rollUpValue = -1;
-        tubeOuterDiameter = measurementConverter.convert(tubeOuterDiameter, drop.getUnit());
-        fabricThickness = measurementConverter.convert(fabricThickness, drop.getUnit());
-
-        if (tubeOuterDiameter.getValue() != -1 || fabricThickness.getValue() != -1) {
-            // conversion exists
-            rollUpValue = Math.sqrt(
-                    Math.pow(tubeOuterDiameter.getValue(), 2) + ((4 * fabricThickness.getValue() * drop.getValue()) / Math.PI));
-        }
-
-        return Measurement.builder()
-                .value(rollUpValue)
-                .unit(drop.getUnit())
-                .build();
-    }
-
-    /**
-     * Calculate the max drop of a shade based on the roll up.
-     * @param maxRollUp the max roll up of the shade
-     * @param tubeOuterDiameter the outer diameter of the tube
-     * @param fabricThickness the fabric of the shade
-     * @return the max drop of the shade in the same unit as the roll up
-     */
-    private Measurement getMaxDrop(Measurement maxRollUp, Measurement tubeOuterDiameter, Measurement fabricThickness) {
-        double maxDropValue = -1;
-
-        maxRollUp = measurementConverter.convert(maxRollUp, "mm");
-        tubeOuterDiameter = measurementConverter.convert(tubeOuterDiameter, "mm");
-        fabricThickness = measurementConverter.convert(fabricThickness, "mm");
-
-        if(maxRollUp.getValue() != -1 && tubeOuterDiameter.getValue() != -1 && fabricThickness.getValue() != -1){
-            double maxRollupSquared = Math.pow(maxRollUp.getValue(), 2);
-            double tubeOuterDiameterSquared = Math.pow(tubeOuterDiameter.getValue(), 2);
+        double rollUp = ShadeKernel.rollUp(
+                toSi(drop, M),
+                toSi(tubeOuterDiameter, M),
+                toSi(fabricThickness, M));
 
-            maxDropValue = (Math.PI * ((maxRollupSquared - tubeOuterDiameterSquared) / 4)) / (fabricThickness.getValue());
-        }
-        log.debug("Max Drop: {} {}", maxDropValue/1000, "m");
-        return Measurement.builder()
-                .value(maxDropValue)
-                .unit("mm")
-                .build();
-    }
-
-    /**
-     * This method returns the moment of inertia of a hollow tube.
-     * The formula is:
-     * I = (pi * ((d^4) - ((d - 2t)^4)) / 64
-     *
-     * @param tube the tube to calculate the moment of inertia
-     * @return the moment of inertia of the tube
-     */
-    private Measurement getMomentOfInertia(RollerTube tube) {
-        Measurement result = Measurement.builder().value(-1).unit("mm^4").build();
-        Measurement thickness = measurementConverter.convert(tube.getThickness(), "mm");
-        Measurement innerDiameter = measurementConverter.convert(tube.getInnerDiameter(), "mm");
-        innerDiameter = measurementConverter.convert(innerDiameter, "mm");
-
-        if (innerDiameter.getValue() != -1){
-            double moment = (Math.PI * ((Math.pow(innerDiameter.getValue(), 4)) -
-                                    (Math.pow((innerDiameter.getValue() -
-                                            (2 * thickness.getValue())), 4)))) / 64;
-
-            result = Measurement.builder()
-                    .value(moment)
-                    .unit("mm^4")
-                    .build();
-        }
-        return result;
+        return fromSi(rollUp, M, drop.getUnit());
     }
 
     /**
@@ -120,33 +72,21 @@ public class ShadeCalculator {
      * @param bottomRail The bottom rail of the shade
      * @param width      The width of the shade
      * @param drop       The drop of the shade
-     * @return the total load on the tube in the same unit as the drop
+     * @return the total load on the tube in N
      */
     public Measurement getTotalLoad(RollerFabric fabric, BottomRail bottomRail, Measurement width, Measurement drop) {
-        Measurement result = Measurement.builder().value(-1).build();
-        String convertTo = "m";
-        drop = measurementConverter.convert(drop, convertTo);
-        width = measurementConverter.convert(width, convertTo);
-
-        if (drop.getValue() != -1 && width.getValue() != -1) {
-
-            Measurement fabricWeight = fabricService.getWeightKg(fabric, width, drop);
-            fabricWeight = measurementConverter.convert(fabricWeight, "N");
-            Measurement bottomRailWeight = bottomRailService.getWeightKg(bottomRail, width);
-            bottomRailWeight = measurementConverter.convert(bottomRailWeight, "N");
-
-            if (fabricWeight.getValue() != -1 && bottomRailWeight.getValue() != -1) {
-                double totalLoad = fabricWeight.getValue() + bottomRailWeight.getValue();
-
-                result = Measurement.builder()
-                        .value(totalLoad)
-                        .unit("N")
-                        .build();
-            }
-        }
+        double totalLoad = ShadeKernel.totalLoad(
+                catalogueNormaliser.weight(fabric),
+                catalogueNormaliser.weight(bottomRail),
+                toSi(width, M),
+                toSi(drop, M));
 
-        return result;
+        return Measurement.builder()
+                .value(Double.isNaN(totalLoad) ? -1 : totalLoad)
+                .unit("N")
+                .build();
     }
+
     /**
      * This method calculates the deflection of a tube.
      * The formula is:
@@ -159,24 +99,105 @@ public class ShadeCalculator {
      */
     public Measurement getTubeDeflection(RollerFabric fabric, RollerTube tube, Measurement width, Measurement drop){
         Measurement result = Measurement.builder().value(-1).build();
-        BottomRail basic = bottomRailRepo.findByName("Euro Slim").orElse(null);
+        BottomRail basic = getBottomRail();
         if (basic != null) {
-            Measurement l = measurementConverter.convert(width, "mm");
-            Measurement E = measurementConverter.convert(tube.getModulus(), "N/mm2");
+            double l = toSi(width, M);
+            double deflection = ShadeKernel.deflection(
+                    ShadeKernel.totalLoad(
+                            catalogueNormaliser.weight(fabric),
+                            catalogueNormaliser.weight(basic),
+                            l,
+                            toSi(drop, M)),
+                    l,
+                    catalogueNormaliser.modulus(tube),
+                    catalogueNormaliser.momentOfInertia(tube));
+
+            if (!Double.isNaN(deflection)) {
+                result = fromSi(deflection, M, "mm");
+            }
+        }
+        return result;
+    }
 
-            if (l.getValue() != -1 && E.getValue() != -1) {
-                Measurement w = getTotalLoad(fabric, basic, width, drop); // N
-                Measurement I = getMomentOfInertia(tube); // mm^4
+    /**
+     * This method calculates the deflection of a tube for every width and drop of a grid.
+     * The tube, fabric and bottom rail are converted once, then each row of the grid
+     * is evaluated by a single primitive loop.
+     * @param fabric The fabric of the shade
+     * @param tube The tube of the shade
+     * @param widths The widths of the shade, in the width unit
+     * @param widthUnit The unit of the widths
+     * @param drops The drops of the shade, in the drop unit
+     * @param dropUnit The unit of the drops
+     * @return the deflections in mm, indexed by drop then width, or null if the bottom rail or a unit is not found
+     */
+    public double[][] getDeflectionGrid(RollerFabric fabric, RollerTube tube,
+                                        double[] widths, String widthUnit, double[] drops, String dropUnit) {
+        BottomRail basic = getBottomRail();
+        if (basic == null) {
+            return null;
+        }
+        double widthFactor = measurementConverter.factor(UnitRegistry.find(widthUnit), M);
+        double dropFactor = measurementConverter.factor(UnitRegistry.find(dropUnit), M);
+        double fabricWeight = catalogueNormaliser.weight(fabric);
+        double bottomRailWeight = catalogueNormaliser.weight(basic);
+        double modulus = catalogueNormaliser.modulus(tube);
+        double momentOfInertia = catalogueNormaliser.momentOfInertia(tube);
+        double toMillimeters = measurementConverter.factor(M, MM);
+        if (Double.isNaN(widthFactor + dropFactor + fabricWeight + bottomRailWeight + modulus + momentOfInertia + toMillimeters)) {
+            return null;
+        }
 
-                double deflection = (5 * w.getValue() * Math.pow(l.getValue(), 3)) / (384 * E.getValue() * I.getValue());
+        double[] widthsSi = new double[widths.length];
+        for (int i = 0; i < widths.length; i++) {
+            widthsSi[i] = widths[i] * widthFactor;
+        }
+        double[][] deflections = new double[drops.length][widths.length];
+        for (int i = 0; i < drops.length; i++) {
+            double load = ShadeKernel.distributedLoad(fabricWeight, bottomRailWeight, drops[i] * dropFactor);
+            // the deflection is linear in the load, so scaling the load returns the row in mm
+            ShadeKernel.deflections(widthsSi, load * toMillimeters, modulus, momentOfInertia, deflections[i]);
+        }
+        return deflections;
+    }
 
-                result = Measurement.builder()
-                        .value(deflection)
-                        .unit("mm")
-                        .build();
-            }
+    /**
+     * @param tube the tube
+     * @return the flexural rigidity (E * I) of the tube in N.m^2, NaN if its units cannot be converted
+     */
+    public double getFlexuralRigidity(RollerTube tube) {
+        return catalogueNormaliser.modulus(tube) * catalogueNormaliser.momentOfInertia(tube);
+    }
+
+    /**
+     * This method calculates the flexural rigidity a tube needs to carry a shade
+     * without deflecting more than the maximum deflection.
+     * @param fabric The fabric of the shade
+     * @param width The width of the shade
+     * @param drop The drop of the shade
+     * @return the required flexural rigidity in N.m^2, NaN if the bottom rail or a unit is not found
+     */
+    public double getRequiredRigidity(RollerFabric fabric, Measurement width, Measurement drop) {
+        BottomRail basic = getBottomRail();
+        if (basic == null) {
+            return Double.NaN;
         }
-        return result;
+        double l = toSi(width, M);
+        return ShadeKernel.requiredRigidity(
+                ShadeKernel.totalLoad(
+                        catalogueNormaliser.weight(fabric),
+                        catalogueNormaliser.weight(basic),
+                        l,
+                        toSi(drop, M)),
+                l,
+                MAX_DEFLECTION / 1000);
+    }
+
+    /**
+     * @return the maximum deflection a tube is allowed before a width is out of its limits
+     */
+    public Measurement getMaxDeflection() {
+        return Measurement.builder().value(MAX_DEFLECTION).unit("mm").build();
     }
 
     /**
@@ -186,10 +207,22 @@ public class ShadeCalculator {
      * @return a list of all system limits
      */
     public List<SystemLimit> getAllSystemLimits(String unit, RollerShadeSystem system, RollerFabric fabric) {
-        List<SystemLimit> systemLimits = new ArrayList<>();
-        List<RollerTube> tubes = tubeRepo.findAll();
+        return getAllSystemLimits(unit, system, fabric, tubeRepo.findAll(), getBottomRail());
+    }
+
+    /**
+     * Get all the system limits for the given tubes, with an already resolved bottom rail
+     * @param system the system chosen
+     * @param fabric the fabric chosen
+     * @param tubes the tubes to calculate the limits for
+     * @param bottomRail the bottom rail hanging from the fabric, null if not found
+     * @return a list of all system limits, in the same order as the tubes
+     */
+    public List<SystemLimit> getAllSystemLimits(String unit, RollerShadeSystem system, RollerFabric fabric,
+                                                List<RollerTube> tubes, BottomRail bottomRail) {
+        List<SystemLimit> systemLimits = new ArrayList<>(tubes.size());
         for (RollerTube tube : tubes) {
-            SystemLimit systemLimit = getSystemLimit(unit, system, fabric, tube);
+            SystemLimit systemLimit = getSystemLimit(unit, system, fabric, tube, bottomRail);
             systemLimits.add(systemLimit);
         }
         return systemLimits;
@@ -199,8 +232,6 @@ public class ShadeCalculator {
      * This method calculates the system limit of a shade.
      * The system limit is the maximum width, and drop that a shade can have,
      * based on the tube, fabric, and system type.
-     * formula:
-     *
      *
      * @param system the system chosen
      * @param fabric the fabric chosen
@@ -208,54 +239,79 @@ public class ShadeCalculator {
      * @return All information about the system limit
      */
     public SystemLimit getSystemLimit(String unit, RollerShadeSystem system, RollerFabric fabric, RollerTube tube) {
-        double maxWidth = -1;
-        float maxDeflection = 2.99f;
-        String bottomRail = "Euro Slim";
-
-        Measurement drop = getMaxDrop(system.getMaxDiameter(), tube.getOuterDiameter(), fabric.getThickness());
-        BottomRail basic = bottomRailRepo.findByName(bottomRail).orElse(null);
-        if( drop.getValue() != -1 && basic != null){
-            Measurement dropLimit = Measurement.builder()
-                    .value(3)
-                    .unit("m")
-                    .build();
-            drop = measurementConverter.convert(drop, "m");
-
-            if(drop.getValue() > dropLimit.getValue()){
-                drop = dropLimit;
-            }
-
-            Measurement fabricWeight = fabricService.getWeightGm(fabric, drop); // g/m
-            fabricWeight = measurementConverter.convert(fabricWeight, "g/mm"); // g/mm
-            Measurement bottomRailWeight = measurementConverter.convert(basic.getWeight(), "g/mm");
-
-            if(fabricWeight.getValue() != -1 && bottomRailWeight.getValue() != -1){
-                Measurement W = Measurement.builder()
-                        .value((fabricWeight.getValue() + bottomRailWeight.getValue()))
-                        .unit("g")
-                        .build(); // g/mm
-
-                W = measurementConverter.convert(W, "N"); // N
-                Measurement I = getMomentOfInertia(tube); // mm^4
-                Measurement E = measurementConverter.convert(tube.getModulus(), "N/mm2"); // N/mm2
+        return getSystemLimit(unit, system, fabric, tube, getBottomRail());
+    }
 
-                maxWidth = Math.pow((maxDeflection * 384 * E.getValue() * I.getValue()) / ( 5 * W.getValue() ),
-                        (double) 1/4);
-            }
+    /**
+     * This method calculates the system limit of a shade with an already resolved bottom rail.
+     * formula:
+     * maxDrop = (pi * (D^2 - d^2) / 4) / t, capped at 3m
+     * maxWidth = ((maxDeflection * 384 * E * I) / (5 * w))^(1/4)
+     *
+     * @param system the system chosen
+     * @param fabric the fabric chosen
+     * @param tube the tube chosen
+     * @param bottomRail the bottom rail hanging from the fabric, null if not found
+     * @return All information about the system limit
+     */
+    public SystemLimit getSystemLimit(String unit, RollerShadeSystem system, RollerFabric fabric, RollerTube tube, BottomRail bottomRail) {
+        double maxDrop = Double.NaN;
+        double maxWidth = Double.NaN;
+
+        if (bottomRail != null) {
+            maxDrop = Math.min(DROP_LIMIT, ShadeKernel.maxDrop(
+                    catalogueNormaliser.maxDiameter(system),
+                    catalogueNormaliser.outerDiameter(tube),
+                    catalogueNormaliser.thickness(fabric)));
+
+            maxWidth = ShadeKernel.maxWidth(
+                    MAX_DEFLECTION / 1000,
+                    catalogueNormaliser.modulus(tube),
+                    catalogueNormaliser.momentOfInertia(tube),
+                    ShadeKernel.distributedLoad(
+                            catalogueNormaliser.weight(fabric),
+                            catalogueNormaliser.weight(bottomRail),
+                            maxDrop));
         }
-        // Convert measurements to the desired unit
-        drop = measurementConverter.convert(drop, unit);
-        maxWidth = measurementConverter.convert(
-                Measurement.builder().value(maxWidth).unit("mm").build(), unit).getValue();
 
-        log.debug("Max Width: {} {}", maxWidth, unit);
+        log.debug("Max Width: {} {}", maxWidth, "m");
         return SystemLimit.builder()
-                .maxDrop(roundMeasurement(drop))
-                .maxWidth(roundMeasurement(Measurement.builder().value(maxWidth).unit(unit).build()))
+                .maxDrop(roundMeasurement(fromSi(maxDrop, M, unit)))
+                .maxWidth(roundMeasurement(fromSi(maxWidth, M, unit)))
                 .tube(RollerTubeResponse.builder()
                         .name(tube.getName())
                         .build())
-                .deflection(Measurement.builder().value(maxDeflection).unit("mm").build())
+                .deflection(Measurement.builder().value(MAX_DEFLECTION).unit("mm").build())
+                .build();
+    }
+
+    /**
+     * @return the bottom rail used for every calculation, null if it is not in the catalogue
+     */
+    public BottomRail getBottomRail() {
+        return catalogueCache.findBottomRail(BOTTOM_RAIL).orElse(null);
+    }
+
+    /**
+     * @param measurement the measurement to convert
+     * @param siUnit the UnitRegistry id of the SI unit to convert to
+     * @return the value in the SI unit, or NaN if the conversion is not possible
+     */
+    private double toSi(Measurement measurement, int siUnit) {
+        return measurement.getValue() * measurementConverter.factor(UnitRegistry.find(measurement.getUnit()), siUnit);
+    }
+
+    /**
+     * @param value the value in the SI unit
+     * @param siUnit the UnitRegistry id of the SI unit of the value
+     * @param unit the unit to convert to
+     * @return the converted measurement, with a value of -1 if the value is invalid or cannot be converted
+     */
+    private Measurement fromSi(double value, int siUnit, String unit) {
+        double converted = value * measurementConverter.factor(siUnit, UnitRegistry.find(unit));
+        return Measurement.builder()
+                .value(Double.isNaN(converted) ? -1 : converted)
+                .unit(unit)
                 .build();
     }
 
@@ -271,4 +327,4 @@ public class ShadeCalculator {
                 .build();
     }
 
-}
\ No newline at end of file
+}
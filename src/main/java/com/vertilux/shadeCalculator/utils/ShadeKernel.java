@@ -0,0 +1,139 @@
+package com.vertilux.shadeCalculator.utils;
+
+/**
+ * ShadeKernel
+ * <p>
+ *     Primitive implementation of the roller shade formulas used by the ShadeCalculator.
+ *     Every method works on plain doubles normalised to SI units (m, kg, N, Pa, m^4),
+ *     allocates nothing and has no side effects. Unit conversion is the caller's job.
+ * </p>
+ * <p>
+ *     Invalid inputs are not checked: a NaN argument propagates to a NaN result,
+ *     which lets callers validate once at the edge instead of after every step.
+ * </p>
+ *
+ * @see ShadeCalculator
+ */
+public final class ShadeKernel {
+    public static final double GRAVITY = 9.81; // m/s^2
+
+    private ShadeKernel() {}
+
+    /**
+     * Roll up diameter of a fabric wound around a tube.
+     * rollUp = sqrt(d^2 + (4 * t * drop) / pi)
+     * @param drop the drop of the shade (m)
+     * @param tubeOuterDiameter the outer diameter of the tube (m)
+     * @param fabricThickness the thickness of the fabric (m)
+     * @return the roll up diameter (m)
+     */
+    public static double rollUp(double drop, double tubeOuterDiameter, double fabricThickness) {
+        return Math.sqrt(tubeOuterDiameter * tubeOuterDiameter + (4 * fabricThickness * drop) / Math.PI);
+    }
+
+    /**
+     * Maximum drop that fits in a given roll up diameter, the inverse of rollUp.
+     * drop = (pi * (D^2 - d^2) / 4) / t
+     * @param maxRollUp the maximum roll up diameter (m)
+     * @param tubeOuterDiameter the outer diameter of the tube (m)
+     * @param fabricThickness the thickness of the fabric (m)
+     * @return the maximum drop (m)
+     */
+    public static double maxDrop(double maxRollUp, double tubeOuterDiameter, double fabricThickness) {
+        return (Math.PI * ((maxRollUp * maxRollUp - tubeOuterDiameter * tubeOuterDiameter) / 4)) / fabricThickness;
+    }
+
+    /**
+     * Moment of inertia of a hollow tube.
+     * I = (pi * ((d^4) - ((d - 2t)^4)) / 64
+     * @param innerDiameter the inner diameter of the tube (m)
+     * @param thickness the thickness of the tube, outer diameter - inner diameter (m)
+     * @return the moment of inertia (m^4)
+     */
+    public static double momentOfInertia(double innerDiameter, double thickness) {
+        double d2 = innerDiameter * innerDiameter;
+        double core = innerDiameter - 2 * thickness;
+        double core2 = core * core;
+        return (Math.PI * (d2 * d2 - core2 * core2)) / 64;
+    }
+
+    /**
+     * Total weight of the fabric and bottom rail hanging from the tube.
+     * @param fabricWeight the weight of the fabric (kg/m2)
+     * @param bottomRailWeight the weight of the bottom rail (kg/m)
+     * @param width the width of the shade (m)
+     * @param drop the drop of the shade (m)
+     * @return the total load (N)
+     */
+    public static double totalLoad(double fabricWeight, double bottomRailWeight, double width, double drop) {
+        return (fabricWeight * width * drop + bottomRailWeight * width) * GRAVITY;
+    }
+
+    /**
+     * Load per unit of width of the fabric and bottom rail hanging from the tube.
+     * @param fabricWeight the weight of the fabric (kg/m2)
+     * @param bottomRailWeight the weight of the bottom rail (kg/m)
+     * @param drop the drop of the shade (m)
+     * @return the distributed load (N/m)
+     */
+    public static double distributedLoad(double fabricWeight, double bottomRailWeight, double drop) {
+        return (fabricWeight * drop + bottomRailWeight) * GRAVITY;
+    }
+
+    /**
+     * Deflection of a tube under a uniformly distributed load.
+     * deflection = (5 * W * l^3) / (384 * E * I)
+     * @param totalLoad the total load on the tube (N)
+     * @param width the width of the shade (m)
+     * @param modulus the modulus of elasticity of the tube (Pa)
+     * @param momentOfInertia the moment of inertia of the tube (m^4)
+     * @return the deflection (m)
+     */
+    public static double deflection(double totalLoad, double width, double modulus, double momentOfInertia) {
+        return (5 * totalLoad * width * width * width) / (384 * modulus * momentOfInertia);
+    }
+
+    /**
+     * Deflection of a tube for every width of a row, under the same distributed load.
+     * Since the total load is w * l, deflection = (5 * w * l^4) / (384 * E * I).
+     * The loop is branch free over contiguous arrays, so the JIT can vectorise it.
+     * @param widths the widths of the shade (m)
+     * @param distributedLoad the load per unit of width (N/m)
+     * @param modulus the modulus of elasticity of the tube (Pa)
+     * @param momentOfInertia the moment of inertia of the tube (m^4)
+     * @param deflections receives the deflection of each width (m), at least as long as widths
+     */
+    public static void deflections(double[] widths, double distributedLoad, double modulus, double momentOfInertia,
+                                   double[] deflections) {
+        double coefficient = (5 * distributedLoad) / (384 * modulus * momentOfInertia);
+        for (int i = 0; i < widths.length; i++) {
+            double width2 = widths[i] * widths[i];
+            deflections[i] = coefficient * width2 * width2;
+        }
+    }
+
+    /**
+     * Minimum flexural rigidity a tube needs to stay within a deflection limit, the inverse of deflection.
+     * E * I = (5 * W * l^3) / (384 * deflection)
+     * @param totalLoad the total load on the tube (N)
+     * @param width the width of the shade (m)
+     * @param maxDeflection the maximum deflection allowed (m)
+     * @return the required flexural rigidity (N.m^2)
+     */
+    public static double requiredRigidity(double totalLoad, double width, double maxDeflection) {
+        return (5 * totalLoad * width * width * width) / (384 * maxDeflection);
+    }
+
+    /**
+     * Maximum width before the tube deflects more than the given limit, the inverse of deflection.
+     * width = ((maxDeflection * 384 * E * I) / (5 * w))^(1/4)
+     * @param maxDeflection the maximum deflection allowed (m)
+     * @param modulus the modulus of elasticity of the tube (Pa)
+     * @param momentOfInertia the moment of inertia of the tube (m^4)
+     * @param distributedLoad the load per unit of width (N/m)
+     * @return the maximum width (m)
+     */
+    public static double maxWidth(double maxDeflection, double modulus, double momentOfInertia, double distributedLoad) {
+        return Math.sqrt(Math.sqrt((maxDeflection * 384 * modulus * momentOfInertia) / (5 * distributedLoad)));
+    }
+}
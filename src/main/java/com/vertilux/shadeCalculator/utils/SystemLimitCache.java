@@ -0,0 +1,122 @@
+package com.vertilux.shadeCalculator.utils;
+
+import com.vertilux.shadeCalculator.models.rollerShade.BottomRail;
+import com.vertilux.shadeCalculator.models.rollerShade.RollerFabric;
+import com.vertilux.shadeCalculator.models.rollerShade.RollerShadeSystem;
+import com.vertilux.shadeCalculator.models.rollerShade.RollerTube;
+import com.vertilux.shadeCalculator.repositories.RollerFabricRepo;
+import com.vertilux.shadeCalculator.repositories.RollerShadeRepo;
+import com.vertilux.shadeCalculator.repositories.RollerTubeRepo;
+import com.vertilux.shadeCalculator.schemas.SystemLimitResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SystemLimitCache
+ * <p>
+ *     The system limits are a pure function of the system, fabric, tube and bottom rail catalogue.
+ *     This class materialises the full (system x fabric x tube) table of limits once per
+ *     requested unit, and serves every following lookup from memory.
+ *     A unit the converter does not know only gets the requested limits, which are not kept.
+ * </p>
+ * <p>
+ *     The tables are tagged with the CatalogueVersion they were computed from,
+ *     and are discarded as soon as the version changes.
+ * </p>
+ *
+ * @see CatalogueVersion
+ * @see ShadeCalculator
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class SystemLimitCache {
+    private final ShadeCalculator shadeCalculator;
+    private final MeasurementConverter measurementConverter;
+    private final CatalogueVersion catalogueVersion;
+    private final RollerShadeRepo rollerShadeRepo;
+    private final RollerFabricRepo rollerFabricRepo;
+    private final RollerTubeRepo rollerTubeRepo;
+
+    private volatile Tables tables = new Tables(0);
+
+    /**
+     * @param unit the unit the limits are returned in
+     * @param systemName the name of the system
+     * @param fabricName the name of the fabric
+     * @return the limits of every tube for the system and fabric, null if either is not found
+     */
+    public SystemLimitResponse getSystemLimits(String unit, String systemName, String fabricName) {
+        long version = catalogueVersion.get();
+        Tables current = tables;
+        if (current.version != version) {
+            current = new Tables(version);
+            tables = current;
+        }
+
+        if (!measurementConverter.hasUnit(unit)) {
+            // unknown units are not cached, so arbitrary path values cannot grow the cache
+            return computeLimits(unit, systemName, fabricName);
+        }
+        return current.byUnit.computeIfAbsent(unit, this::computeTable).get(key(systemName, fabricName));
+    }
+
+    /**
+     * Computes the limits of a single system and fabric, without a table.
+     * @param unit the unit the limits are returned in
+     * @return the limits of every tube for the system and fabric, null if either is not found
+     */
+    private SystemLimitResponse computeLimits(String unit, String systemName, String fabricName) {
+        RollerShadeSystem system = rollerShadeRepo.findByName(systemName).orElse(null);
+        RollerFabric fabric = rollerFabricRepo.findByName(fabricName).orElse(null);
+        if (system == null || fabric == null) {
+            return null;
+        }
+        return SystemLimitResponse.getSystemLimitResponse(system, fabric, List.copyOf(shadeCalculator.getAllSystemLimits(
+                unit, system, fabric, rollerTubeRepo.findAll(), shadeCalculator.getBottomRail())));
+    }
+
+    /**
+     * Computes the limits of every system, fabric and tube in the catalogue.
+     * @param unit the unit the limits are returned in
+     * @return the limits indexed by system and fabric name
+     */
+    private Map<String, SystemLimitResponse> computeTable(String unit) {
+        List<RollerShadeSystem> systems = rollerShadeRepo.findAll();
+        List<RollerFabric> fabrics = rollerFabricRepo.findAll();
+        List<RollerTube> tubes = rollerTubeRepo.findAll();
+        BottomRail bottomRail = shadeCalculator.getBottomRail();
+
+        Map<String, SystemLimitResponse> table = new HashMap<>();
+        for (RollerShadeSystem system : systems) {
+            for (RollerFabric fabric : fabrics) {
+                table.put(key(system.getName(), fabric.getName()), SystemLimitResponse.getSystemLimitResponse(
+                        system, fabric, List.copyOf(shadeCalculator.getAllSystemLimits(unit, system, fabric, tubes, bottomRail))));
+            }
+        }
+        log.debug("Computed {} system limits in {}", table.size() * tubes.size(), unit);
+        return Map.copyOf(table);
+    }
+
+    private static String key(String systemName, String fabricName) {
+        return systemName + '\u0000' + fabricName;
+    }
+
+    /**
+     * The tables computed for one catalogue version.
+     */
+    private static final class Tables {
+        private final long version;
+        private final Map<String, Map<String, SystemLimitResponse>> byUnit = new ConcurrentHashMap<>();
+
+        private Tables(long version) {
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.vertilux.shadeCalculator.utils;
+
+import com.vertilux.shadeCalculator.models.rollerShade.RollerTube;
+import com.vertilux.shadeCalculator.repositories.RollerTubeRepo;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * TubeIndex
+ * <p>
+ *     Every tube of the catalogue, sorted by flexural rigidity (E * I).
+ *     The deflection of a tube is inversely proportional to its rigidity,
+ *     so the tubes that satisfy a deflection limit are a suffix of the index,
+ *     and the least rigid of them is found with a binary search.
+ * </p>
+ * <p>
+ *     The index is tagged with the CatalogueVersion it was built from,
+ *     and is rebuilt on the first lookup after the version changes.
+ *     Tubes whose rigidity cannot be calculated are left out.
+ * </p>
+ *
+ * @see CatalogueVersion
+ * @see ShadeCalculator#getFlexuralRigidity(RollerTube)
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class TubeIndex {
+    private final ShadeCalculator shadeCalculator;
+    private final CatalogueVersion catalogueVersion;
+    private final RollerTubeRepo rollerTubeRepo;
+
+    private volatile Snapshot snapshot = new Snapshot(0, new RollerTube[0], new double[0]);
+
+    /**
+     * @param requiredRigidity the minimum flexural rigidity (N.m^2)
+     * @return the least rigid tube with at least the required rigidity, empty if none is rigid enough
+     */
+    public Optional<RollerTube> findLeastRigid(double requiredRigidity) {
+        Snapshot current = current();
+        if (Double.isNaN(requiredRigidity)) {
+            return Optional.empty();
+        }
+        int low = 0;
+        int high = current.rigidities.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (current.rigidities[mid] < requiredRigidity) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low < current.tubes.length ? Optional.of(current.tubes[low]) : Optional.empty();
+    }
+
+    /**
+     * @return the index of the current catalogue version, rebuilt if the catalogue changed
+     */
+    private Snapshot current() {
+        long version = catalogueVersion.get();
+        Snapshot current = snapshot;
+        if (current.version != version) {
+            current = build(version);
+            snapshot = current;
+        }
+        return current;
+    }
+
+    private Snapshot build(long version) {
+        List<RollerTube> tubes = new ArrayList<>();
+        List<Double> rigidities = new ArrayList<>();
+        for (RollerTube tube : rollerTubeRepo.findAll()) {
+            double rigidity = shadeCalculator.getFlexuralRigidity(tube);
+            if (!Double.isNaN(rigidity)) {
+                tubes.add(tube);
+                rigidities.add(rigidity);
+            }
+        }
+
+        Integer[] order = new Integer[tubes.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingDouble(rigidities::get));
+
+        RollerTube[] sortedTubes = new RollerTube[order.length];
+        double[] sortedRigidities = new double[order.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedTubes[i] = tubes.get(order[i]);
+            sortedRigidities[i] = rigidities.get(order[i]);
+        }
+        log.debug("Indexed {} tubes by rigidity", sortedTubes.length);
+        return new Snapshot(version, sortedTubes, sortedRigidities);
+    }
+
+    /**
+     * The tubes of one catalogue version, in ascending order of rigidity.
+     */
+    private static final class Snapshot {
+        private final long version;
+        private final RollerTube[] tubes;
+        private final double[] rigidities;
+
+        private Snapshot(long version, RollerTube[] tubes, double[] rigidities) {
+            this.version = version;
+            this.tubes = tubes;
+            this.rigidities = rigidities;
+        }
+    }
+}
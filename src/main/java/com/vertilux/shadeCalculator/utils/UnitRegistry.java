@@ -0,0 +1,108 @@
+package com.vertilux.shadeCalculator.utils;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * UnitRegistry
+ * <p>
+ *     Interns every measurement unit symbol into a small integer id, stable for the life of the process,
+ *     with a table of the canonical symbol of each id.
+ *     Ids are never reused or removed, so they can be resolved once into constants
+ *     and compared or used as array indexes instead of comparing the symbols.
+ * </p>
+ * <p>
+ *     Symbols are canonicalised before they are interned: surrounding whitespace and '^' are dropped,
+ *     and the superscripts ² and ³ become 2 and 3, so "mm^2", "mm²" and "mm2" share one id.
+ *     Symbols are case sensitive.
+ * </p>
+ * <p>
+ *     Only the units of the conversion tables and of the code are interned;
+ *     symbols coming from requests are only looked up with find, so they cannot grow the registry.
+ * </p>
+ *
+ * @see ConversionGraph
+ */
+public final class UnitRegistry {
+    public static final int UNKNOWN_UNIT = -1;
+
+    private static final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private static volatile String[] symbols = new String[0];
+
+    private UnitRegistry() {}
+
+    /**
+     * @param symbol the unit symbol
+     * @return the id of the unit, registering it if it is not known yet, or UNKNOWN_UNIT if the symbol is null or blank
+     */
+    public static int intern(String symbol) {
+        int id = find(symbol);
+        if (id != UNKNOWN_UNIT || symbol == null) {
+            return id;
+        }
+        String canonical = canonical(symbol);
+        if (canonical.isEmpty()) {
+            return UNKNOWN_UNIT;
+        }
+        synchronized (UnitRegistry.class) {
+            Integer existing = ids.get(canonical);
+            if (existing != null) {
+                return existing;
+            }
+            String[] grown = Arrays.copyOf(symbols, symbols.length + 1);
+            grown[symbols.length] = canonical;
+            symbols = grown;
+            ids.put(canonical, symbols.length - 1);
+            return symbols.length - 1;
+        }
+    }
+
+    /**
+     * @param symbol the unit symbol
+     * @return the id of the unit, or UNKNOWN_UNIT if it is not registered
+     */
+    public static int find(String symbol) {
+        if (symbol == null) {
+            return UNKNOWN_UNIT;
+        }
+        Integer id = ids.get(symbol);
+        if (id == null) {
+            id = ids.get(canonical(symbol));
+        }
+        return id == null ? UNKNOWN_UNIT : id;
+    }
+
+    /**
+     * @param id the id of the unit
+     * @return the canonical symbol of the unit
+     */
+    public static String symbol(int id) {
+        return symbols[id];
+    }
+
+    /**
+     * @return the number of registered units, every id is lower than it
+     */
+    public static int size() {
+        return symbols.length;
+    }
+
+    /**
+     * @param symbol the unit symbol
+     * @return the canonical spelling of the symbol
+     */
+    static String canonical(String symbol) {
+        StringBuilder canonical = new StringBuilder(symbol.length());
+        for (int i = 0; i < symbol.length(); i++) {
+            char c = symbol.charAt(i);
+            switch (c) {
+                case '^' -> { }
+                case '²' -> canonical.append('2');
+                case '³' -> canonical.append('3');
+                default -> canonical.append(c);
+            }
+        }
+        return canonical.toString().trim();
+    }
+}
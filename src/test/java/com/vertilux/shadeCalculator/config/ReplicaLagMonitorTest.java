@@ -0,0 +1,118 @@
+package com.vertilux.shadeCalculator.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaLagMonitorTest {
+    private static final String LAG_QUERY = "SHOW SLAVE STATUS";
+
+    private final DataSource replica = mock(DataSource.class);
+    private final Connection connection = mock(Connection.class);
+    private final Statement statement = mock(Statement.class);
+    private final ResultSet status = mock(ResultSet.class);
+    private final ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, Duration.ofSeconds(5), LAG_QUERY);
+
+    @BeforeEach
+    void replica() throws SQLException {
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(metaData.getColumnCount()).thenReturn(2);
+        when(metaData.getColumnLabel(1)).thenReturn("Slave_IO_State");
+        when(metaData.getColumnLabel(2)).thenReturn("Seconds_Behind_Master");
+        when(replica.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(LAG_QUERY)).thenReturn(status);
+        when(status.getMetaData()).thenReturn(metaData);
+    }
+
+    @Test
+    void isNotUsableBeforeTheFirstCheck() {
+        assertThat(monitor.isReplicaUsable()).isFalse();
+    }
+
+    @Test
+    void isUsableWithinTheMaximumLag() throws SQLException {
+        lag(5);
+        monitor.check();
+
+        assertThat(monitor.isReplicaUsable()).isTrue();
+    }
+
+    @Test
+    void isNotUsableBeyondTheMaximumLag() throws SQLException {
+        lag(2);
+        monitor.check();
+        lag(6);
+        monitor.check();
+
+        assertThat(monitor.isReplicaUsable()).isFalse();
+    }
+
+    @Test
+    void isNotUsableWhileReplicationIsStopped() throws SQLException {
+        when(status.next()).thenReturn(true);
+        when(status.getLong(2)).thenReturn(0L);
+        when(status.wasNull()).thenReturn(true);
+        monitor.check();
+
+        assertThat(monitor.isReplicaUsable()).isFalse();
+    }
+
+    @Test
+    void isUsableWhenTheDatabaseIsNotReplicating() throws SQLException {
+        when(status.next()).thenReturn(false);
+        monitor.check();
+
+        assertThat(monitor.isReplicaUsable()).isTrue();
+    }
+
+    @Test
+    void isNotUsableWhenTheCheckFails() throws SQLException {
+        lag(0);
+        monitor.check();
+        when(statement.executeQuery(LAG_QUERY)).thenThrow(new SQLException("Access denied; you need the REPLICATION CLIENT privilege"));
+        monitor.check();
+
+        assertThat(monitor.isReplicaUsable()).isFalse();
+    }
+
+    @Test
+    void isNotUsableWhenTheReplicaIsDown() throws SQLException {
+        lag(0);
+        monitor.check();
+        when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        monitor.check();
+
+        assertThat(monitor.isReplicaUsable()).isFalse();
+    }
+
+    @Test
+    void onlyChecksTheConnectionWithoutALagQuery() throws SQLException {
+        ReplicaLagMonitor blank = new ReplicaLagMonitor(replica, Duration.ofSeconds(5), "");
+        when(connection.isValid(anyInt())).thenReturn(true);
+        blank.check();
+        assertThat(blank.isReplicaUsable()).isTrue();
+
+        when(connection.isValid(anyInt())).thenReturn(false);
+        blank.check();
+        assertThat(blank.isReplicaUsable()).isFalse();
+    }
+
+    private void lag(long seconds) throws SQLException {
+        when(status.next()).thenReturn(true);
+        when(status.getLong(2)).thenReturn(seconds);
+        when(status.wasNull()).thenReturn(false);
+    }
+}
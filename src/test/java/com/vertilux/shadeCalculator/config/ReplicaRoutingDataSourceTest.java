@@ -0,0 +1,94 @@
+package com.vertilux.shadeCalculator.config;
+
+import com.vertilux.shadeCalculator.config.ReplicaRoutingDataSource.Target;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+    private static final Duration MAX_LAG = Duration.ofMillis(200);
+
+    private final ReplicaLagMonitor lagMonitor = mock(ReplicaLagMonitor.class);
+    private final ReplicaRoutingDataSource routing =
+            new ReplicaRoutingDataSource(mock(DataSource.class), mock(DataSource.class), lagMonitor, MAX_LAG);
+
+    @BeforeEach
+    void replicaUsable() {
+        when(lagMonitor.isReplicaUsable()).thenReturn(true);
+    }
+
+    @AfterEach
+    void clear() {
+        TransactionSynchronizationManager.clear();
+    }
+
+    @Test
+    void routesReadOnlyTransactionsToTheReplica() {
+        begin(true);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(Target.REPLICA);
+    }
+
+    @Test
+    void routesEverythingElseToThePrimary() {
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(Target.PRIMARY);
+        begin(false);
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(Target.PRIMARY);
+    }
+
+    @Test
+    void fallsBackToThePrimaryWhileTheReplicaIsNotUsable() {
+        when(lagMonitor.isReplicaUsable()).thenReturn(false);
+        begin(true);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(Target.PRIMARY);
+    }
+
+    @Test
+    void keepsReadsOnThePrimaryUntilTheMaximumLagAfterAWrite() throws InterruptedException {
+        begin(false);
+        routing.determineCurrentLookupKey();
+        // a read of another thread while the write runs
+        assertThat(routing.readsOwnWrites()).isTrue();
+
+        complete();
+        begin(true);
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(Target.PRIMARY);
+
+        Thread.sleep(MAX_LAG.toMillis() + 50);
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(Target.REPLICA);
+    }
+
+    @Test
+    void doesNotCountStatementsOutsideATransactionAsWrites() {
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(Target.PRIMARY);
+
+        begin(true);
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(Target.REPLICA);
+    }
+
+    /**
+     * Starts a transaction on the current thread, as the transaction manager does before the first statement.
+     */
+    private static void begin(boolean readOnly) {
+        TransactionSynchronizationManager.clear();
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private static void complete() {
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        TransactionSynchronizationManager.clear();
+    }
+}
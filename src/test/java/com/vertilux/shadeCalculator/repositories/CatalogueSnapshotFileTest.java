@@ -0,0 +1,136 @@
+package com.vertilux.shadeCalculator.repositories;
+
+import com.vertilux.shadeCalculator.models.measurements.Measurement;
+import com.vertilux.shadeCalculator.models.measurements.MeasurementUnit;
+import com.vertilux.shadeCalculator.models.measurements.UnitConversion;
+import com.vertilux.shadeCalculator.models.rollerShade.BottomRail;
+import com.vertilux.shadeCalculator.models.rollerShade.RollerFabric;
+import com.vertilux.shadeCalculator.models.rollerShade.RollerShadeSystem;
+import com.vertilux.shadeCalculator.models.rollerShade.RollerTube;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CatalogueSnapshotFileTest {
+    @TempDir
+    Path directory;
+
+    private Path file;
+
+    @BeforeEach
+    void write() throws IOException {
+        MeasurementUnit mm = MeasurementUnit.builder().id("unit-mm").unit("mm").build();
+        MeasurementUnit m = MeasurementUnit.builder().id("unit-m").unit("m").build();
+        UnitConversion conversion = UnitConversion.builder().id("conversion").from(mm).to(m).factor(0.001).build();
+        RollerTube tube = RollerTube.builder()
+                .id("tube-2")
+                .name("Tube 50")
+                .outerDiameter(measurement(50, "mm"))
+                .innerDiameter(measurement(48, "mm"))
+                .outerDiameterSi(0.05)
+                .innerDiameterSi(0.048)
+                .wallThicknessSi(0.002)
+                .modulusSi(69e9)
+                .momentOfInertiaSi(1.2e-8)
+                .build();
+        RollerTube other = RollerTube.builder()
+                .id("tube-1")
+                .name("Tube 38")
+                .outerDiameter(measurement(38, "mm"))
+                .innerDiameter(measurement(36, "mm"))
+                .build();
+        // no thickness, and a weight in a unit without conversion, so no SI value
+        RollerFabric fabric = RollerFabric.builder()
+                .id("fabric")
+                .name("Blackout")
+                .weight(measurement(12, "oz/yd2"))
+                .build();
+        BottomRail bottomRail = BottomRail.builder().id("rail").name("Basic").weight(measurement(0.3, "kg/m")).weightSi(0.3).build();
+        RollerShadeSystem system = RollerShadeSystem.builder().id("system").name("Cassette").maxDiameter(measurement(60, "mm")).build();
+
+        file = directory.resolve("catalogue.bin");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            CatalogueSnapshotFile.write(out, "42", List.of(mm, m), List.of(conversion), List.of(bottomRail),
+                    List.of(fabric), List.of(system), List.of(tube, other));
+        }
+    }
+
+    @Test
+    void readsBackWhatWasWritten() throws IOException {
+        CatalogueSnapshotFile snapshot = CatalogueSnapshotFile.map(file);
+
+        assertThat(CatalogueSnapshotFile.isSnapshot(file)).isTrue();
+        assertThat(snapshot.getVersion()).isEqualTo("42");
+        assertThat(snapshot.getTable(RollerTube.class)).extracting(RollerTube::getName).containsExactly("Tube 38", "Tube 50");
+        UnitConversion conversion = snapshot.getTable(UnitConversion.class).get(0);
+        assertThat(conversion.getFrom().getUnit()).isEqualTo("mm");
+        assertThat(conversion.getTo().getUnit()).isEqualTo("m");
+        assertThat(conversion.getFactor()).isEqualTo(0.001);
+    }
+
+    @Test
+    void findsRowsByNameAndId() throws IOException {
+        EmbeddedCatalogue catalogue = new EmbeddedCatalogue();
+        CatalogueSnapshotFile snapshot = CatalogueSnapshotFile.map(file);
+        catalogue.replace(snapshot.getVersion(), snapshot.getTables());
+        RollerTubeRepo tubes = catalogue.repository(RollerTubeRepo.class, RollerTube.class);
+
+        RollerTube tube = tubes.findByName("Tube 50").orElseThrow();
+        assertThat(tube.getId()).isEqualTo("tube-2");
+        assertThat(tube.getOuterDiameter().getValue()).isEqualTo(50);
+        assertThat(tube.getOuterDiameter().getUnit()).isEqualTo("mm");
+        assertThat(tube.getMomentOfInertiaSi()).isEqualTo(1.2e-8);
+        assertThat(tubes.findById("tube-1")).map(RollerTube::getName).contains("Tube 38");
+        assertThat(tubes.findById("tube-1")).containsSame(tubes.findByName("Tube 38").orElseThrow());
+        assertThat(tubes.findByName("Tube 99")).isEmpty();
+        assertThat(tubes.findById("fabric")).isEmpty();
+    }
+
+    @Test
+    void keepsMissingMeasurementsAndSiValuesNull() throws IOException {
+        CatalogueSnapshotFile snapshot = CatalogueSnapshotFile.map(file);
+
+        RollerFabric fabric = snapshot.getTable(RollerFabric.class).get(0);
+        assertThat(fabric.getThickness()).isNull();
+        assertThat(fabric.getWeight().getUnit()).isEqualTo("oz/yd2");
+        assertThat(fabric.getThicknessSi()).isNull();
+        assertThat(fabric.getWeightSi()).isNull();
+        RollerTube tube = (RollerTube) ((SortedRows) snapshot.getTable(RollerTube.class)).find("Name", "Tube 38");
+        assertThat(tube.getOuterDiameterSi()).isNull();
+        assertThat(tube.getMomentOfInertiaSi()).isNull();
+    }
+
+    @Test
+    void rejectsTruncatedFiles() throws IOException {
+        byte[] content = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(content, content.length - 10));
+
+        assertThatThrownBy(() -> CatalogueSnapshotFile.map(file))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Truncated catalogue snapshot");
+    }
+
+    @Test
+    void rejectsOtherFiles() throws IOException {
+        Files.writeString(file, "{\"version\": \"1\"}");
+
+        assertThat(CatalogueSnapshotFile.isSnapshot(file)).isFalse();
+        assertThatThrownBy(() -> CatalogueSnapshotFile.map(file))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Not a catalogue snapshot");
+    }
+
+    private static Measurement measurement(double value, String unit) {
+        return Measurement.builder().value(value).unit(unit).build();
+    }
+}
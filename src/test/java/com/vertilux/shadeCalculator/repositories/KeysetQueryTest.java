@@ -0,0 +1,99 @@
+package com.vertilux.shadeCalculator.repositories;
+
+import com.vertilux.shadeCalculator.models.measurements.Measurement;
+import com.vertilux.shadeCalculator.models.rollerShade.RollerFabric;
+import com.vertilux.shadeCalculator.schemas.KeysetPage;
+import com.vertilux.shadeCalculator.services.CatalogueSeedService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import(KeysetQuery.class)
+class KeysetQueryTest {
+    @Autowired
+    private KeysetQuery keysetQuery;
+    @Autowired
+    private RollerFabricRepo rollerFabricRepo;
+    // only needed by the startup runner, the tests save their own catalogue
+    @MockBean
+    private CatalogueSeedService catalogueSeedService;
+
+    private List<RollerFabric> fabrics;
+
+    @BeforeEach
+    void save() {
+        // several fabrics share a name, so the pages must also be ordered by id
+        fabrics = new ArrayList<>();
+        for (String name : List.of("Screen", "Blackout", "Screen", "Light", "Screen", "Blackout", "Dim")) {
+            fabrics.add(rollerFabricRepo.save(RollerFabric.builder()
+                    .name(name)
+                    .weight(Measurement.builder().value(0.3).unit("kg/m2").build())
+                    .build()));
+        }
+        fabrics.sort(Comparator.comparing(RollerFabric::getName).thenComparing(RollerFabric::getId));
+    }
+
+    @Test
+    void pagesThroughEveryEntityOnce() {
+        List<Object> ids = new ArrayList<>();
+        List<Integer> sizes = new ArrayList<>();
+        String cursor = null;
+        do {
+            KeysetPage page = keysetQuery.page(RollerFabric.class, 2, cursor, List.of());
+            page.getItems().forEach(item -> ids.add(item.get("id")));
+            sizes.add(page.getItems().size());
+            cursor = page.getNext();
+        } while (cursor != null);
+
+        assertThat(ids).containsExactlyElementsOf(fabrics.stream().map(RollerFabric::getId).toList());
+        assertThat(sizes).containsExactly(2, 2, 2, 1);
+    }
+
+    @Test
+    void hasNoNextCursorOnTheLastPage() {
+        KeysetPage page = keysetQuery.page(RollerFabric.class, fabrics.size(), null, List.of());
+
+        assertThat(page.getItems()).hasSize(fabrics.size());
+        assertThat(page.getNext()).isNull();
+    }
+
+    @Test
+    void selectsOnlyTheRequestedFields() {
+        KeysetPage page = keysetQuery.page(RollerFabric.class, 1, null, List.of("weight"));
+
+        Map<String, Object> item = page.getItems().get(0);
+        assertThat(item).containsOnlyKeys("id", "name", "weight");
+        assertThat(item.get("id")).isEqualTo(fabrics.get(0).getId());
+    }
+
+    @Test
+    void rejectsUnknownAndHiddenFields() {
+        assertThatThrownBy(() -> keysetQuery.page(RollerFabric.class, 1, null, List.of("colour")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unknown field: colour");
+        assertThatThrownBy(() -> keysetQuery.page(RollerFabric.class, 1, null, List.of("weightSi")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsInvalidCursors() {
+        String cursor = Base64.getUrlEncoder().withoutPadding().encodeToString("no separator".getBytes());
+
+        assertThatThrownBy(() -> keysetQuery.page(RollerFabric.class, 1, cursor, List.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+}
@@ -0,0 +1,78 @@
+package com.vertilux.shadeCalculator.services;
+
+import com.vertilux.shadeCalculator.models.Response;
+import com.vertilux.shadeCalculator.schemas.CalculationJobStatus;
+import com.vertilux.shadeCalculator.schemas.SystemLimitBatchRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class CalculationJobServiceTest {
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(10));
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void forgetsTheOldestFinishedJobsBeyondTheMaximum() throws InterruptedException {
+        CalculationJobService service = new CalculationJobService(calculator(), executor, Duration.ofMinutes(10), 2);
+
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            String id = id(service.submitSystemLimits("mm", new SystemLimitBatchRequest()));
+            // one job at a time, so they finish in the order they were submitted
+            assertThat(service.streamResults(id, result -> {})).isTrue();
+            ids.add(id);
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(service.getStatus(ids.get(0)).getErrors()).containsExactly("Job not found");
+        assertThat(service.getStatus(ids.get(1)).getStatus()).isEqualTo("success");
+        List<?> results = (List<?>) service.getResults(ids.get(2), 0).getData();
+        assertThat(results).hasSize(1);
+    }
+
+    @Test
+    void forgetsFinishedJobsAfterTheRetention() throws InterruptedException {
+        CalculationJobService service = new CalculationJobService(calculator(), executor, Duration.ZERO, 100);
+
+        String id = id(service.submitSystemLimits("mm", new SystemLimitBatchRequest()));
+        service.streamResults(id, result -> {});
+        Thread.sleep(5);
+
+        assertThat(service.getStatus(id).getErrors()).containsExactly("Job not found");
+    }
+
+    /**
+     * @return a calculator answering every batch with one result
+     */
+    private static CalculatorService calculator() {
+        CalculatorService calculator = mock(CalculatorService.class);
+        doAnswer(invocation -> {
+            invocation.<Consumer<Response>>getArgument(3).accept(Response.builder().data("limit").build());
+            return null;
+        }).when(calculator).getSystemLimits(anyString(), any(), any(), any());
+        return calculator;
+    }
+
+    private static String id(Response submitted) {
+        return ((CalculationJobStatus) submitted.getData()).getId();
+    }
+}
@@ -0,0 +1,84 @@
+package com.vertilux.shadeCalculator.utils;
+
+import com.vertilux.shadeCalculator.models.measurements.MeasurementUnit;
+import com.vertilux.shadeCalculator.models.measurements.UnitConversion;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ConversionGraphTest {
+    // the UnitRegistry is shared by the whole process, so these symbols are not used anywhere else
+    private static final MeasurementUnit MM = unit("graph-mm");
+    private static final MeasurementUnit M = unit("graph-m");
+    private static final MeasurementUnit FT = unit("graph-ft");
+    private static final MeasurementUnit IN = unit("graph-in");
+
+    @Test
+    void derivesInverseConversions() {
+        ConversionGraph graph = ConversionGraph.build(1, List.of(MM, M), List.of(conversion(MM, M, 0.001)));
+
+        assertThat(factor(graph, MM, M)).isEqualTo(0.001);
+        assertThat(factor(graph, M, MM)).isCloseTo(1000, within(1e-9));
+        assertThat(factor(graph, MM, MM)).isEqualTo(1);
+    }
+
+    @Test
+    void derivesMultiHopConversions() {
+        ConversionGraph graph = ConversionGraph.build(1, List.of(MM, M, FT, IN), List.of(
+                conversion(MM, M, 0.001),
+                conversion(M, FT, 3.28084),
+                conversion(FT, IN, 12)));
+
+        assertThat(factor(graph, MM, IN)).isCloseTo(0.001 * 3.28084 * 12, within(1e-12));
+        assertThat(factor(graph, IN, MM)).isCloseTo(1 / (0.001 * 3.28084 * 12), within(1e-9));
+    }
+
+    @Test
+    void prefersStoredConversionsToDerivedOnes() {
+        ConversionGraph graph = ConversionGraph.build(1, List.of(MM, M, IN), List.of(
+                conversion(MM, M, 0.001),
+                conversion(M, IN, 39.3701),
+                conversion(MM, IN, 0.04),
+                conversion(M, MM, 999)));
+
+        assertThat(factor(graph, MM, IN)).isEqualTo(0.04);
+        assertThat(factor(graph, M, MM)).isEqualTo(999);
+    }
+
+    @Test
+    void hasNoFactorForUnitsOutsideTheGraph() {
+        UnitRegistry.intern(FT.getUnit());
+        ConversionGraph graph = ConversionGraph.build(1, List.of(MM, M), List.of(conversion(MM, M, 0.001)));
+
+        assertThat(graph.unitId(FT.getUnit())).isEqualTo(ConversionGraph.UNKNOWN_UNIT);
+        assertThat(factor(graph, FT, FT)).isNaN();
+        assertThat(factor(graph, MM, FT)).isNaN();
+        assertThat(graph.unitId("graph-furlong")).isEqualTo(ConversionGraph.UNKNOWN_UNIT);
+        assertThat(graph.factor(ConversionGraph.UNKNOWN_UNIT, graph.unitId(M.getUnit()))).isNaN();
+    }
+
+    @Test
+    void keepsUnitsWithoutConversionsDisconnected() {
+        ConversionGraph graph = ConversionGraph.build(1, List.of(MM, M, FT), List.of(conversion(MM, M, 0.001)));
+
+        assertThat(graph.size()).isEqualTo(3);
+        assertThat(factor(graph, FT, FT)).isEqualTo(1);
+        assertThat(factor(graph, MM, FT)).isNaN();
+        assertThat(factor(graph, FT, M)).isNaN();
+    }
+
+    private static double factor(ConversionGraph graph, MeasurementUnit from, MeasurementUnit to) {
+        return graph.factor(UnitRegistry.find(from.getUnit()), UnitRegistry.find(to.getUnit()));
+    }
+
+    private static MeasurementUnit unit(String symbol) {
+        return MeasurementUnit.builder().id(symbol).unit(symbol).build();
+    }
+
+    private static UnitConversion conversion(MeasurementUnit from, MeasurementUnit to, double factor) {
+        return UnitConversion.builder().from(from).to(to).factor(factor).build();
+    }
+}
@@ -0,0 +1,103 @@
+package com.vertilux.shadeCalculator.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vertilux.shadeCalculator.schemas.OrderLine;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderLineReaderTest {
+
+    @Test
+    void readsCsvColumnsInAnyOrder() throws IOException {
+        try (OrderLineReader reader = reader(OrderLineReader.Format.CSV, """
+                unit,drop,width,system,tube,fabric
+                mm,2000,1500,Cassette 100,"28mm - 1 1/8""\",Light-demo
+
+                in,80,60,Cassette 100,38mm,Screen
+                """)) {
+            OrderLine first = reader.read();
+            assertThat(first.getLine()).isEqualTo(2);
+            assertThat(first.getTubeName()).isEqualTo("28mm - 1 1/8\"");
+            assertThat(first.getFabricName()).isEqualTo("Light-demo");
+            assertThat(first.getWidth().getValue()).isEqualTo(1500);
+            assertThat(first.getDrop().getUnit()).isEqualTo("mm");
+
+            OrderLine second = reader.read();
+            assertThat(second.getLine()).isEqualTo(4);
+            assertThat(second.getWidth().getUnit()).isEqualTo("in");
+            assertThat(reader.read()).isNull();
+        }
+    }
+
+    @Test
+    void keepsQuotesInsideUnquotedFields() throws IOException {
+        try (OrderLineReader reader = reader(OrderLineReader.Format.CSV, """
+                fabric,tube,system,width,drop,unit
+                Medium-demo,38mm - 1 1/2" STD,Cassette 100,2,2,m
+                Medium-demo,38mm - 1 1/2" STD,Cassette 100,wide,2,m
+                """)) {
+            OrderLine line = reader.read();
+            assertThat(line.getTubeName()).isEqualTo("38mm - 1 1/2\" STD");
+            assertThat(line.getWidth().getValue()).isEqualTo(2);
+            assertThatThrownBy(reader::read).isInstanceOf(NumberFormatException.class);
+        }
+    }
+
+    @Test
+    void keepsReadingAfterAnInvalidLine() throws IOException {
+        try (OrderLineReader reader = reader(OrderLineReader.Format.CSV, """
+                fabric,tube,system,width,drop,unit
+                Screen,38mm,Cassette 100,wide,2000,mm
+                Screen,"38mm,Cassette 100,1500,2000,mm
+                Screen,38mm
+                Screen,38mm,Cassette 100,1500,2000,mm
+                """)) {
+            assertThatThrownBy(reader::read).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(reader::read).isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Unterminated quoted field");
+            assertThatThrownBy(reader::read).isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Expected 6 columns, found 2");
+            assertThat(reader.read().getLine()).isEqualTo(5);
+        }
+    }
+
+    @Test
+    void rejectsACsvHeaderWithoutEveryColumn() throws IOException {
+        try (OrderLineReader reader = reader(OrderLineReader.Format.CSV, """
+                fabric,tube,width,drop,unit
+                Screen,38mm,1500,2000,mm
+                """)) {
+            assertThatThrownBy(reader::read).isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    @Test
+    void readsNdjsonLines() throws IOException {
+        try (OrderLineReader reader = reader(OrderLineReader.Format.NDJSON, """
+                {"fabricName":"Screen","tubeName":"38mm","systemName":"Cassette 100","width":{"value":1500,"unit":"mm"},"drop":{"value":2000,"unit":"mm"}}
+                null
+                {"fabricName":
+                {"fabricName":"Dim","tubeName":"38mm","systemName":"Cassette 100","width":{"value":60,"unit":"in"},"drop":{"value":80,"unit":"in"}}
+                """)) {
+            OrderLine first = reader.read();
+            assertThat(first.getLine()).isEqualTo(1);
+            assertThat(first.getSystemName()).isEqualTo("Cassette 100");
+            assertThatThrownBy(reader::read).isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Line 2 is empty");
+            assertThatThrownBy(reader::read).isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageStartingWith("Invalid JSON");
+            assertThat(reader.read().getFabricName()).isEqualTo("Dim");
+            assertThat(reader.read()).isNull();
+        }
+    }
+
+    private static OrderLineReader reader(OrderLineReader.Format format, String content) {
+        return new OrderLineReader(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), format, new ObjectMapper());
+    }
+}
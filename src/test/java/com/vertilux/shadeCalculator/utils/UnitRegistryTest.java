@@ -0,0 +1,44 @@
+package com.vertilux.shadeCalculator.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UnitRegistryTest {
+
+    @Test
+    void sharesOneIdBetweenSpellingsOfASymbol() {
+        int id = UnitRegistry.intern("registry-mm2");
+
+        assertThat(UnitRegistry.intern("registry-mm^2")).isEqualTo(id);
+        assertThat(UnitRegistry.find("registry-mm²")).isEqualTo(id);
+        assertThat(UnitRegistry.find(" registry-mm2 ")).isEqualTo(id);
+        assertThat(UnitRegistry.symbol(id)).isEqualTo("registry-mm2");
+    }
+
+    @Test
+    void storesTheCanonicalSymbol() {
+        int id = UnitRegistry.intern("registry-m³");
+
+        assertThat(UnitRegistry.symbol(id)).isEqualTo("registry-m3");
+        assertThat(UnitRegistry.find("registry-m^3")).isEqualTo(id);
+    }
+
+    @Test
+    void isCaseSensitive() {
+        int lower = UnitRegistry.intern("registry-mn");
+
+        assertThat(UnitRegistry.intern("registry-MN")).isNotEqualTo(lower);
+    }
+
+    @Test
+    void onlyRegistersInternedSymbols() {
+        int size = UnitRegistry.size();
+
+        assertThat(UnitRegistry.find("registry-furlong")).isEqualTo(UnitRegistry.UNKNOWN_UNIT);
+        assertThat(UnitRegistry.find(null)).isEqualTo(UnitRegistry.UNKNOWN_UNIT);
+        assertThat(UnitRegistry.intern(" ^ ")).isEqualTo(UnitRegistry.UNKNOWN_UNIT);
+        assertThat(UnitRegistry.intern(null)).isEqualTo(UnitRegistry.UNKNOWN_UNIT);
+        assertThat(UnitRegistry.size()).isEqualTo(size);
+    }
+}